@@ -1,25 +1,41 @@
 package Base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.interactions.Actions;
 import pages.HomePage;
+import utilities.BrowserPool;
+import utilities.CommandMetrics;
 import utilities.CommonActions;
+import utilities.Config;
+import utilities.DriverBinaryCache;
+import utilities.DriverManager;
+import utilities.FailureClassifier;
+import utilities.PerformanceCapture;
+import utilities.StepProxy;
+import utilities.VideoRecorder;
+import utilities.VirtualDisplay;
+import utilities.WaitEngine;
+import utilities.WaitPolicy;
 
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.annotations.BeforeMethod;
 
-import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -27,9 +43,7 @@ import utilities.TestDataProvider;
 
 public class Base {
 
-    public static WebDriver driver;
     public static Logger log = LogManager.getLogger(Base.class);
-    public static Properties prop = null;
 
     protected CommonActions commonActions;
     protected HomePage homePage;
@@ -39,54 +53,58 @@ public class Base {
     String receiverName;
 
     public static WebDriver getDriver() {
-        return driver;
+        return DriverManager.getDriver();
     }
 
+    /**
+     * Snapshot of the effective configuration; prefer the typed accessors on Config
+     */
     protected Properties getProp() {
-        return prop; // assuming prop is defined and loaded somewhere
+        return Config.asProperties();
     }
 
     @BeforeMethod
     public void setUp() {
 
-        String url = getProp().getProperty("multibank_url");
-        String browserName = getProp().getProperty("browser");
-
-        // Setup driver using WebDriverManager
-        setupWebDriverManager(browserName);
-        driver = createDriverInstance(browserName);
+        String url = Config.baseUrl();
+        String browserName = Config.browser();
 
-        // Initialize WebDriver
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(40));
+        // Lease a warm browser from the pool (launched only if the pool has no idle session)
+        WebDriver driver = BrowserPool.lease(browserName, () -> newBrowserSession(browserName));
+        DriverManager.setDriver(driver);
+        WaitEngine.resetWaitedTime();
         driver.get(url);
+        PerformanceCapture.capture("page load");
 
-        // Initialize common objects
-        commonActions = new CommonActions();
-        homePage = new HomePage(driver);
-        testData = new TestDataProvider();
+        // Initialize common objects (thread-agnostic, so sharing them across parallel methods is safe)
+        // Page objects are created through StepProxy, which times each public action as a step
+        commonActions = StepProxy.create(CommonActions.class);
+        homePage = StepProxy.create(HomePage.class);
+        testData = new TestDataProvider(); // backed by the shared model, parsed once per JVM
     }
 
     public void startBackofficeBrowser() {
-        startBrowserWithUrl(prop.getProperty("stg-backoffice.url"));
+        startBrowserWithUrl(Config.backofficeUrl());
     }
 
     private void startBrowserWithUrl(String url) {
-        String browserName = prop.getProperty("browser");
+        String browserName = Config.browser();
         System.setProperty("hudson.model.DirectoryBrowserSupport.CSP",
                 "sandbox allow-scripts; default-src 'self'; script-src * 'unsafe-eval'; img-src *; style-src * 'unsafe-inline'; font-src *");
 
         try {
-            setupWebDriverManager(browserName);
-            driver = createDriverInstance(browserName);
+            // Reuse the browser this thread already leased (e.g. from setUp); leasing another would leak it
+            WebDriver driver = DriverManager.getDriver();
+            if (driver == null) {
+                driver = BrowserPool.lease(browserName, () -> newBrowserSession(browserName));
+                DriverManager.setDriver(driver);
+            }
 
             long start = System.currentTimeMillis();
             driver.get(url);
             long finish = System.currentTimeMillis();
             long totalTime = (finish - start) / 1000;
-
-            driver.manage().window().fullscreen();
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(30));
+            PerformanceCapture.capture("page load");
 
             System.out.println("Total time to respond: " + totalTime + " seconds");
             log.info("Total time to respond: " + totalTime + " seconds");
@@ -97,20 +115,31 @@ public class Base {
         }
     }
 
-    private void setupWebDriverManager(String browserName) {
-        switch (browserName.toLowerCase()) {
-            case "chrome":
-                WebDriverManager.chromedriver().setup();
-                break;
-            case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                break;
-            case "edge":
-                WebDriverManager.edgedriver().setup();
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported browser: " + browserName);
+    /**
+     * Launch and configure a new browser. Called by the pool only when no idle session can be reused
+     */
+    private WebDriver newBrowserSession(String browserName) {
+        setupWebDriverManager(browserName);
+
+        // When tests are recorded from the screen, each browser gets its own virtual display so parallel
+        // recordings don't overlap
+        String display = VideoRecorder.needsDisplay(browserName) ? VirtualDisplay.acquire() : null;
+        WebDriver driver;
+        try {
+            driver = createDriverInstance(browserName, display);
+        } catch (RuntimeException e) {
+            VirtualDisplay.release(display);
+            throw e;
         }
+        VirtualDisplay.bind(driver, display);
+        driver.manage().window().maximize();
+        WaitPolicy.applyTo(driver); // implicit wait 0: explicit waits are the only blocking primitive
+        return driver;
+    }
+
+    private void setupWebDriverManager(String browserName) {
+        // Resolved once per JVM and backed by a persistent cache, so repeated launches skip WebDriverManager
+        DriverBinaryCache.setup(browserName);
     }
 
     private Class<?> getDriverClass(String browserName) {
@@ -126,7 +155,15 @@ public class Base {
         }
     }
 
-    private WebDriver createDriverInstance(String browserName) {
+    private WebDriver createDriverInstance(String browserName, String display) {
+        // Wrapped here so the pool, the display binding and the tests all hold the same (instrumented) instance
+        return CommandMetrics.instrument(launchDriver(browserName, display));
+    }
+
+    private WebDriver launchDriver(String browserName, String display) {
+        // The browser inherits the driver service's environment, so DISPLAY selects the screen it renders on
+        Map<String, String> environment = display == null ? Map.of() : Map.of("DISPLAY", display);
+
         switch (browserName.toLowerCase()) {
             case "chrome":
                 ChromeOptions chromeOptions = new ChromeOptions();
@@ -142,7 +179,8 @@ public class Base {
                 chromeOptions.addArguments("--disable-features=VizDisplayCompositor");
                 chromeOptions.addArguments("--enable-javascript");
                 chromeOptions.addArguments("--headless=new");
-                return new ChromeDriver(chromeOptions);
+                return display == null ? new ChromeDriver(chromeOptions)
+                        : new ChromeDriver(new ChromeDriverService.Builder().withEnvironment(environment).build(), chromeOptions);
 
             case "firefox":
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
@@ -162,13 +200,15 @@ public class Base {
                 // Essential capability
                 firefoxOptions.setCapability("moz:firefoxOptions", true);
 
-                return new FirefoxDriver(firefoxOptions);
+                return display == null ? new FirefoxDriver(firefoxOptions)
+                        : new FirefoxDriver(new GeckoDriverService.Builder().withEnvironment(environment).build(), firefoxOptions);
 
             case "edge":
                 EdgeOptions edgeOptions = new EdgeOptions();
                 edgeOptions.addArguments("--inprivate", "--disable-dev-shm-usage", "--remote-allow-origins=*");
                 // edgeOptions.setHeadless(true);
-                return new EdgeDriver(edgeOptions);
+                return display == null ? new EdgeDriver(edgeOptions)
+                        : new EdgeDriver(new EdgeDriverService.Builder().withEnvironment(environment).build(), edgeOptions);
 
             default:
                 throw new IllegalArgumentException("Unsupported browser: " + browserName);
@@ -177,7 +217,7 @@ public class Base {
 
 
     public WebElement waitForVisibility(WebElement element) {
-        return new WebDriverWait(getDriver(), Duration.ofSeconds(15))
+        return new WebDriverWait(getDriver(), WaitPolicy.defaultTimeout())
                 .ignoring(StaleElementReferenceException.class)
                 .until(driver -> {
                     try {
@@ -189,12 +229,12 @@ public class Base {
     }
 
     public void waitForVisibilityList(List<WebElement> elements) {
-        new WebDriverWait(getDriver(), Duration.ofSeconds(10))
+        new WebDriverWait(getDriver(), WaitPolicy.defaultTimeout())
                 .until(ExpectedConditions.visibilityOfAllElements(elements));
     }
 
     public WebElement waitForClickability(WebElement element) {
-        return new WebDriverWait(getDriver(), Duration.ofSeconds(10))
+        return new WebDriverWait(getDriver(), WaitPolicy.defaultTimeout())
                 .ignoring(StaleElementReferenceException.class)
                 .until(driver -> {
                     try {
@@ -206,12 +246,33 @@ public class Base {
     }
 
     public void waitForPageLoad() {
-        new WebDriverWait(driver, Duration.ofSeconds(60)).until(webDriver -> ((JavascriptExecutor) webDriver)
-                .executeScript("return document.readyState").equals("complete"));
+        WaitEngine.until(WaitEngine.documentReady(), WaitPolicy.pageLoadTimeout());
+        PerformanceCapture.capture("page load");
     }
 
     public void waitForUrlContains(String keyword) {
-        new WebDriverWait(getDriver(), Duration.ofSeconds(10)).until(ExpectedConditions.urlContains(keyword));
+        new WebDriverWait(getDriver(), WaitPolicy.defaultTimeout()).until(ExpectedConditions.urlContains(keyword));
+    }
+
+    /**
+     * Zero-timeout lookup for optional elements. Never blocks (the implicit wait is always 0),
+     * so fallback locator chains cost one round-trip per miss.
+     */
+    public static Optional<WebElement> probe(By locator) {
+        return probe(getDriver(), locator);
+    }
+
+    public static Optional<WebElement> probe(SearchContext context, By locator) {
+        List<WebElement> found = context.findElements(locator);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    public static List<WebElement> probeAll(By locator) {
+        return getDriver().findElements(locator);
+    }
+
+    public static List<WebElement> probeAll(SearchContext context, By locator) {
+        return context.findElements(locator);
     }
 
     public static void enterText(WebElement element, CharSequence text) {
@@ -223,23 +284,76 @@ public class Base {
         }
     }
 
+    /**
+     * Run one test step, re-running only that step on the same browser if it fails transiently
+     * (stale element, intercepted click, timeout). Assertion mismatches are rethrown immediately
+     */
+    protected <T> T retryStep(String stepName, Supplier<T> step) {
+        int maxAttempts = Math.max(1, Config.getInt("retry.stepAttempts", 3));
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return step.get();
+            } catch (RuntimeException | AssertionError e) {
+                if (attempt >= maxAttempts || !FailureClassifier.isTransient(e)) {
+                    throw e;
+                }
+                log.warn("Step '" + stepName + "' failed transiently (attempt " + attempt + "/" + maxAttempts
+                        + "), retrying on the same session: " + e);
+                try {
+                    Thread.sleep(250L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    protected void retryStep(String stepName, Runnable step) {
+        retryStep(stepName, () -> {
+            step.run();
+            return null;
+        });
+    }
+
     public void closeBrowser() {
+        WebDriver driver = getDriver();
         if (driver != null) {
             try {
-                driver.manage().deleteAllCookies();
-                driver.quit();
-                log.info("Browser closed and cookies deleted");
+                log.info("Time spent in explicit waits: " + WaitEngine.getWaitedMillis() + " ms");
+                if (isSessionAlive(driver)) {
+                    // Reset and return the session to the pool (quit if pooling is disabled or it is worn out)
+                    BrowserPool.release(driver);
+                    log.info("Browser released and cookies deleted");
+                } else {
+                    // A crashed or closed session must not be handed to the next test
+                    BrowserPool.discard(driver);
+                    log.warn("Browser session is no longer alive, discarded it from the pool");
+                }
             } catch (Exception e) {
                 log.warn("Error during browser cleanup: " + e.getMessage());
             } finally {
-                driver = null; // CRITICAL: Release the reference
+                DriverManager.unload(); // CRITICAL: Release this thread's reference
             }
         }
     }
 
+    private boolean isSessionAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandles();
+            return true;
+        } catch (NoSuchSessionException | SessionNotCreatedException e) {
+            return false;
+        } catch (WebDriverException e) {
+            // The driver process itself is gone (connection refused) or the browser crashed
+            log.warn("Browser session check failed: " + e.getMessage());
+            return false;
+        }
+    }
+
     public void pressEnter() throws InterruptedException {
         try {
-            Actions actions = new Actions(driver);
+            Actions actions = new Actions(getDriver());
             actions.sendKeys(Keys.ENTER).perform();
             log.info("Pressed ENTER key globally");
             Thread.sleep(500);
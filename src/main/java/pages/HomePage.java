@@ -8,16 +8,22 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.testng.Assert;
+import utilities.DriverManager;
+import utilities.WaitEngine;
+import utilities.WaitPolicy;
 
 
 public class HomePage extends Base {
@@ -127,13 +133,129 @@ public class HomePage extends Base {
     @FindBy(xpath = "//span[@class='AfwdI']")
     public WebElement googlePlayTitleElement;
 
-    private WebDriverWait wait;
-    private Actions actions;
+    // How long a category must stay empty before the table counts as settled (e.g. Favorites for a new user)
+    private static final Duration EMPTY_TABLE_QUIET_PERIOD = Duration.ofMillis(750);
+
+    // Top-nav entries in display order: canonical name -> CSS selector
+    private static final List<List<String>> NAVIGATION_ITEMS = List.of(
+            List.of("Dashboard", "a[href='/'][class*='style_menu-item__SLdA4']"),
+            List.of("Markets", "a[href='/markets'][class*='style_menu-item__SLdA4']"),
+            List.of("Trade", "#trade-header-option-open-button"),
+            List.of("Features", "#features-header-option-open-button"),
+            List.of("About Us", "#about-header-option-open-button"),
+            List.of("Support", "#support-header-option-open-button"));
+
+    // Reads the navigation container and every nav item (text, visibility, href, indicator, box) in one round-trip
+    private static final String NAVIGATION_SCRIPT =
+            "function visible(el) {" +
+            "  if (!el) return false;" +
+            "  var rect = el.getBoundingClientRect(), style = window.getComputedStyle(el);" +
+            "  return rect.width > 0 && rect.height > 0 && style.visibility !== 'hidden' && style.display !== 'none';" +
+            "}" +
+            "var container = document.querySelector('.style_menu-container__Ha_wV');" +
+            "if (!visible(container)) return null;" +
+            "return arguments[0].map(function (spec) {" +
+            "  var el = document.querySelector(spec[1]);" +
+            "  if (!el) return {name: spec[0], present: false};" +
+            "  var rect = el.getBoundingClientRect();" +
+            "  return {name: spec[0], present: true, visible: visible(el), tagName: el.tagName.toLowerCase()," +
+            "          text: el.innerText.replace(/[\u25bc\u25be]/g, '').trim(), href: el.getAttribute('href')," +
+            "          hasDropdownIndicator: el.querySelector('svg') !== null," +
+            "          x: rect.left, y: rect.top, width: rect.width, height: rect.height};" +
+            "});";
+
+    // Opens each dropdown in turn (hover, then click if hovering does not open it), waits for its menu with a
+    // MutationObserver instead of sleeping, collects the visible item labels and closes it again.
+    // Async script: arguments[0] is a list of [name, selector], the result maps name -> item labels
+    private static final String DROPDOWN_HARVEST_SCRIPT =
+            "var specs = arguments[0], done = arguments[arguments.length - 1], result = {};" +
+            "function fire(el, types) {" +
+            "  types.forEach(function (type) {" +
+            "    var Ctor = type.indexOf('pointer') === 0 && window.PointerEvent ? PointerEvent : MouseEvent;" +
+            "    el.dispatchEvent(new Ctor(type, {bubbles: true, cancelable: true, view: window}));" +
+            "  });" +
+            "}" +
+            "function openMenu(button) {" +
+            "  var id = button.getAttribute('aria-controls');" +
+            "  var menu = (id && document.getElementById(id)) || document.querySelector(\"[role='menu']\");" +
+            "  return menu && menu.getBoundingClientRect().height > 0 ? menu : null;" +
+            "}" +
+            "function waitFor(check, timeoutMs) {" +
+            "  return new Promise(function (resolve) {" +
+            "    var value = check();" +
+            "    if (value) return resolve(value);" +
+            "    var observer = new MutationObserver(function () {" +
+            "      var v = check();" +
+            "      if (v) { observer.disconnect(); clearTimeout(timer); resolve(v); }" +
+            "    });" +
+            "    var timer = setTimeout(function () { observer.disconnect(); resolve(check()); }, timeoutMs);" +
+            "    observer.observe(document.body, {childList: true, subtree: true, attributes: true});" +
+            "  });" +
+            "}" +
+            "function labels(menu) {" +
+            "  return Array.prototype.filter.call(menu.querySelectorAll('a'), function (a) {" +
+            "    var rect = a.getBoundingClientRect();" +
+            "    return rect.width > 0 && rect.height > 0;" +
+            "  }).map(function (a) { return a.innerText.trim(); }).filter(Boolean);" +
+            "}" +
+            "function harvest(spec) {" +
+            "  var button = document.querySelector(spec[1]);" +
+            "  if (!button) { result[spec[0]] = []; return Promise.resolve(); }" +
+            "  fire(button, ['pointerover', 'pointerenter', 'mouseover', 'mouseenter']);" +
+            "  return waitFor(function () { return openMenu(button); }, 1500).then(function (menu) {" +
+            "    if (menu) return menu;" +
+            "    button.click();" +
+            "    return waitFor(function () { return openMenu(button); }, 1500);" +
+            "  }).then(function (menu) {" +
+            "    result[spec[0]] = menu ? labels(menu) : [];" +
+            "    fire(button, ['pointerout', 'pointerleave', 'mouseout', 'mouseleave']);" +
+            "    if (openMenu(button)) {" +
+            "      document.dispatchEvent(new KeyboardEvent('keydown', {key: 'Escape', bubbles: true}));" +
+            "    }" +
+            "    return waitFor(function () { return !openMenu(button); }, 1000);" +
+            "  });" +
+            "}" +
+            "specs.reduce(function (chain, spec) {" +
+            "  return chain.then(function () { return harvest(spec); });" +
+            "}, Promise.resolve()).then(function () { done(result); }, function (e) { done({error: String(e)}); });";
+
+    // Reads the whole trading pairs table in one round-trip: raw cell texts for symbol, price, change and volume
+    private static final String TRADING_PAIRS_SCRIPT =
+            "var body = document.querySelector('tbody');" +
+            "if (!body) return [];" +
+            "var table = body.closest('table');" +
+            "var headers = table ? Array.prototype.map.call(table.querySelectorAll('thead th')," +
+            "    function (th) { return th.innerText.trim().toLowerCase(); }) : [];" +
+            "function column(name, fallback) {" +
+            "  for (var i = 0; i < headers.length; i++) { if (headers[i].indexOf(name) >= 0) return i; }" +
+            "  return fallback;" +
+            "}" +
+            "var priceCol = column('price', 1), changeCol = column('change', 2), volumeCol = column('volume', -1);" +
+            "function cellText(cells, index) {" +
+            "  return index >= 0 && index < cells.length ? cells[index].innerText.trim() : '';" +
+            "}" +
+            "return Array.prototype.map.call(body.querySelectorAll('tr'), function (row) {" +
+            "  var cells = row.querySelectorAll('td');" +
+            "  var symbol = cellText(cells, 0);" +
+            "  if (!symbol && cells.length) {" +
+            "    symbol = Array.prototype.map.call(cells[0].querySelectorAll('div, span')," +
+            "        function (el) { return el.innerText.trim(); }).filter(Boolean).join(' ');" +
+            "  }" +
+            "  return {symbol: symbol, rowText: row.innerText.trim(), price: cellText(cells, priceCol)," +
+            "          change: cellText(cells, changeCol), volume: cellText(cells, volumeCol)};" +
+            "});";
+
+    // Elements are located against the calling thread's driver, so parallel tests can share this page
+    public HomePage() {
+        PageFactory.initElements(new DefaultElementLocatorFactory(DriverManager.currentContext()), this);
+    }
+
+    private WebDriverWait pageWait() {
+        return new WebDriverWait(getDriver(), WaitPolicy.defaultTimeout());
+    }
 
-    public HomePage(WebDriver driver) {
-        PageFactory.initElements(driver, this);
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(30));
-        this.actions = new Actions(driver);
+    private Actions actions() {
+        return new Actions(getDriver());
     }
 
     public boolean isNavigationBarVisible() {
@@ -147,58 +269,48 @@ public class HomePage extends Base {
     }
 
     public List<String> getNavigationMenuItems() {
-        waitForVisibility(navigationContainer);
-        List<String> menuTexts = new ArrayList<>();
-
         try {
-            // Get each navigation item individually using the defined elements
-
-            // Add Dashboard
-            if (dashboardLink != null && dashboardLink.isDisplayed()) {
-                String text = dashboardLink.getText().trim();
-                if (!text.isEmpty()) menuTexts.add(text);
-            }
-
-            // Add Markets
-            if (marketsLink != null && marketsLink.isDisplayed()) {
-                String text = marketsLink.getText().trim();
-                if (!text.isEmpty()) menuTexts.add(text);
-            }
-
-            // Add Trade
-            if (tradeDropdown != null && tradeDropdown.isDisplayed()) {
-                String text = tradeDropdown.getText().trim();
-                // Remove dropdown arrow if present
-                text = text.replace("▼", "").replace("▾", "").trim();
-                if (!text.isEmpty() && text.contains("Trade")) menuTexts.add("Trade");
-            }
-
-            // Add Features
-            if (featuresDropdown != null && featuresDropdown.isDisplayed()) {
-                String text = featuresDropdown.getText().trim();
-                text = text.replace("▼", "").replace("▾", "").trim();
-                if (!text.isEmpty() && text.contains("Features")) menuTexts.add("Features");
-            }
-
-            // Add About Us
-            if (aboutUsDropdown != null && aboutUsDropdown.isDisplayed()) {
-                String text = aboutUsDropdown.getText().trim();
-                text = text.replace("▼", "").replace("▾", "").trim();
-                if (!text.isEmpty() && text.contains("About")) menuTexts.add("About Us");
-            }
-
-            // Add Support
-            if (supportDropdown != null && supportDropdown.isDisplayed()) {
-                String text = supportDropdown.getText().trim();
-                text = text.replace("▼", "").replace("▾", "").trim();
-                if (!text.isEmpty() && text.contains("Support")) menuTexts.add("Support");
-            }
-
+            return getNavigationSnapshot().visibleMenuNames();
         } catch (Exception e) {
             log.error("Error getting navigation menu items: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Read the whole top navigation bar in one script call (waits for the bar to be visible;
+     * containerVisible is false and the snapshot empty if it never shows up)
+     */
+    @SuppressWarnings("unchecked")
+    public NavigationSnapshot getNavigationSnapshot() {
+        List<Map<String, Object>> rows = WaitEngine.waitQuietly(WaitEngine.condition("navigation bar rendered",
+                driver -> (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                        .executeScript(NAVIGATION_SCRIPT, NAVIGATION_ITEMS)), WaitPolicy.defaultTimeout());
+        if (rows == null) {
+            log.error("Navigation bar not visible");
+            return new NavigationSnapshot(false, List.of());
         }
 
-        return menuTexts;
+        List<NavigationSnapshot.Item> items = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            items.add(new NavigationSnapshot.Item(
+                    (String) row.get("name"),
+                    row.get("text") == null ? "" : (String) row.get("text"),
+                    Boolean.TRUE.equals(row.get("present")),
+                    Boolean.TRUE.equals(row.get("visible")),
+                    (String) row.get("tagName"),
+                    (String) row.get("href"),
+                    Boolean.TRUE.equals(row.get("hasDropdownIndicator")),
+                    toDouble(row.get("x")), toDouble(row.get("y")),
+                    toDouble(row.get("width")), toDouble(row.get("height"))));
+        }
+        NavigationSnapshot snapshot = new NavigationSnapshot(true, items);
+        log.info("Navigation snapshot: " + snapshot.items());
+        return snapshot;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
     }
 
     public boolean isDashboardLinkActive() {
@@ -217,7 +329,8 @@ public class HomePage extends Base {
     }
 
     public void hoverOnTradeMenu() {
-        actions.moveToElement(tradeDropdown).perform();
+        waitForVisibility(tradeDropdown);
+        actions().moveToElement(tradeDropdown).perform();
     }
 
     public void clickTradeDropdown() {
@@ -245,14 +358,13 @@ public class HomePage extends Base {
         WebElement dropdown = null;
 
         try {
-            switch(dropdownName.toLowerCase()) {
+            switch(dropdownName.toLowerCase().replace(" ", "")) {
                 case "trade":
                     dropdown = tradeDropdown;
                     break;
                 case "features":
                     dropdown = featuresDropdown;
                     break;
-                case "About Us":
                 case "aboutus":
                     dropdown = aboutUsDropdown;
                     break;
@@ -262,14 +374,14 @@ public class HomePage extends Base {
             }
 
             if (dropdown != null) {
-                // Just hover, don't click
-                actions.moveToElement(dropdown).perform();
-                Thread.sleep(1000);
+                // Just hover, don't click - then wait for the menu to finish opening
+                waitForVisibility(dropdown);
+                actions().moveToElement(dropdown).perform();
+                WaitEngine.waitQuietly(WaitEngine.dropdownAnimationFinished(By.xpath("//div[@role='menu']")),
+                        WaitPolicy.shortTimeout());
 
                 // Get the dropdown items that appeared
-                List<WebElement> dropdownItems = driver.findElements(
-                        By.xpath("//div[@role='menu']//a | //ul//li//a")
-                );
+                List<WebElement> dropdownItems = probeAll(By.xpath("//div[@role='menu']//a | //ul//li//a"));
 
                 for (WebElement item : dropdownItems) {
                     if (item.isDisplayed()) {
@@ -287,6 +399,48 @@ public class HomePage extends Base {
         return items;
     }
 
+    /**
+     * Read the items of several dropdowns in one async script call, without hover/sleep cycles per menu.
+     * Dropdowns the script could not open fall back to getDropdownItems
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, List<String>> getAllDropdownItems(List<String> dropdownNames) {
+        List<List<String>> specs = new ArrayList<>();
+        for (String name : dropdownNames) {
+            NAVIGATION_ITEMS.stream()
+                    .filter(item -> item.get(0).equalsIgnoreCase(name))
+                    .findFirst()
+                    .ifPresent(item -> specs.add(List.of(name, item.get(1))));
+        }
+
+        long start = System.currentTimeMillis();
+        Map<String, Object> harvested = Map.of();
+        try {
+            Object result = ((JavascriptExecutor) getDriver()).executeAsyncScript(DROPDOWN_HARVEST_SCRIPT, specs);
+            if (result instanceof Map) {
+                harvested = (Map<String, Object>) result;
+            }
+            if (harvested.containsKey("error")) {
+                log.warn("Dropdown harvest script failed: " + harvested.get("error"));
+            }
+        } catch (Exception e) {
+            log.warn("Dropdown harvest script failed: " + e.getMessage());
+        }
+        log.info("Harvested " + specs.size() + " dropdowns in " + (System.currentTimeMillis() - start) + " ms");
+
+        Map<String, List<String>> items = new LinkedHashMap<>();
+        for (String name : dropdownNames) {
+            Object labels = harvested.get(name);
+            if (labels instanceof List && !((List<?>) labels).isEmpty()) {
+                items.put(name, List.copyOf((List<String>) labels));
+            } else {
+                log.info("No items harvested for " + name + " - falling back to hover");
+                items.put(name, getDropdownItems(name));
+            }
+        }
+        return items;
+    }
+
     // click on All categories button in Spot section
     public void clickAllCategory() {
         try {
@@ -310,7 +464,7 @@ public class HomePage extends Base {
 
     public List<WebElement> getTradingPairs() {
         try {
-            Thread.sleep(2000); // Wait for pairs to load
+            waitForTradingPairs();
             return tradingPairsTable;
         } catch (Exception e) {
             log.error("Could not get trading pairs: " + e.getMessage());
@@ -320,7 +474,7 @@ public class HomePage extends Base {
 
     public List<WebElement> getTradingPairsRows() {
         try {
-            Thread.sleep(2000); // Wait for pairs to load
+            waitForTradingPairs();
 
             log.info("Found " + tradingPairsTable.size() + " trading pair rows");
             return tradingPairsTable;
@@ -331,11 +485,53 @@ public class HomePage extends Base {
         }
     }
 
+    /**
+     * Wait until the trading pairs table shows something other than the marker taken before an action
+     * (WaitEngine.tableMarker), then until its row count settles. Returns the row count, 0 for an empty category
+     */
+    public int waitForTradingPairsChangedFrom(String marker) {
+        WaitEngine.waitQuietly(WaitEngine.tableChangedFrom(marker), WaitPolicy.shortTimeout());
+        Long rows = WaitEngine.waitQuietly(WaitEngine.tableRowsSettled(EMPTY_TABLE_QUIET_PERIOD), WaitPolicy.shortTimeout());
+        return rows == null ? 0 : rows.intValue();
+    }
+
+    /**
+     * Wait until the trading pairs table has rendered its rows; returns the row count (0 if none appeared)
+     */
+    public int waitForTradingPairs() {
+        Long rows = WaitEngine.waitQuietly(WaitEngine.tableRowsRendered(), WaitPolicy.shortTimeout());
+        return rows == null ? 0 : rows.intValue();
+    }
+
+    /**
+     * Extract every trading pair row in a single executeScript call
+     */
+    @SuppressWarnings("unchecked")
+    public List<TradingPair> getTradingPairRecords() {
+        waitForTradingPairs();
+        List<Map<String, Object>> rows = (List<Map<String, Object>>)
+                ((JavascriptExecutor) getDriver()).executeScript(TRADING_PAIRS_SCRIPT);
+
+        List<TradingPair> pairs = new ArrayList<>();
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                pairs.add(new TradingPair(
+                        cleanPairSymbol(String.valueOf(row.get("symbol")), String.valueOf(row.get("rowText"))),
+                        cleanPrice(String.valueOf(row.get("price"))),
+                        String.valueOf(row.get("change")),
+                        String.valueOf(row.get("volume"))));
+            }
+        }
+        log.info("Extracted " + pairs.size() + " trading pairs in one script call");
+        return pairs;
+    }
+
     // Footer Methods
     public void scrollToFooter() {
         try {
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", footer);
-            Thread.sleep(1000);
+            WaitEngine.until(WaitEngine.present(footer));
+            ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", footer);
+            WaitEngine.until(WaitEngine.scrollSettled());
         } catch (Exception e) {
             log.error("Could not scroll to footer: " + e.getMessage());
         }
@@ -375,14 +571,16 @@ public class HomePage extends Base {
      */
     public void scrollToAppDownloadSection() {
         try {
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
+            WaitEngine.until(WaitEngine.present(appDownloadSection));
+            ((JavascriptExecutor) getDriver()).executeScript(
                     "arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});",
-                    homePage.appDownloadSection
+                    appDownloadSection
             );
+            WaitEngine.until(WaitEngine.scrollSettled());
         } catch (Exception e) {
             log.error("Error scrolling to app download section: " + e.getMessage());
             // Fallback to regular scroll
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
+            ((JavascriptExecutor) getDriver()).executeScript(
                     "window.scrollBy(0, 1500);"
             );
         }
@@ -414,59 +612,13 @@ public class HomePage extends Base {
      */
     public boolean switchToNewTab() {
         try {
-            String originalWindow = driver.getWindowHandle();
+            String originalWindow = getDriver().getWindowHandle();
             log.info("Original window: " + originalWindow);
 
-            // Wait for a new window to appear with a reasonable timeout
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
-            boolean newTabOpened = wait.until(driver -> {
-                try {
-                    int windowCount = driver.getWindowHandles().size();
-                    log.info("Current window count: " + windowCount);
-                    return windowCount > 1;
-                } catch (Exception e) {
-                    log.warn("Error checking window count: " + e.getMessage());
-                    return false;
-                }
-            });
-
-            if (!newTabOpened) {
-                log.warn("No new tab opened within timeout");
-                return false;
-            }
-
-            // Get all window handles safely
-            Set<String> allWindows;
-            try {
-                allWindows = driver.getWindowHandles();
-            } catch (Exception e) {
-                log.error("Error getting window handles: " + e.getMessage());
-                return false;
-            }
-
-            log.info("All window handles: " + allWindows);
-
-            // Find and switch to the new window
-            for (String window : allWindows) {
-                if (!window.equals(originalWindow)) {
-                    try {
-                        driver.switchTo().window(window);
-                        log.info("Switched to new tab: " + window);
-
-                        // Wait for the new page to load
-                        wait.until(webDriver -> ((JavascriptExecutor) webDriver)
-                                .executeScript("return document.readyState").equals("complete"));
-                        Thread.sleep(2000);
-                        return true;
-                    } catch (Exception e) {
-                        log.error("Error switching to window " + window + ": " + e.getMessage());
-                        continue; // Try next window
-                    }
-                }
-            }
-
-            log.warn("No new tab found or could not switch to it");
-            return false;
+            // Returns as soon as the new tab exists and has finished loading (driver is switched to it)
+            String newWindow = WaitEngine.until(WaitEngine.newTabLoaded(Set.of(originalWindow)));
+            log.info("Switched to new tab: " + newWindow);
+            return true;
 
         } catch (Exception e) {
             log.error("Error in switchToNewTab: " + e.getMessage());
@@ -475,20 +627,19 @@ public class HomePage extends Base {
     }
 
     public String getCurrentUrl() {
-        return driver.getCurrentUrl();
+        return getDriver().getCurrentUrl();
     }
 
     public String getPageTitle() {
-        return driver.getTitle();
+        return getDriver().getTitle();
     }
 
     // Check if a menu item has dropdown indicator
     public boolean hasDropdownIndicator(String menuName) {
-        String id = menuName.toLowerCase().replace(" ", "") + "-header-option-open-button";
         try {
-            WebElement dropdown = driver.findElement(By.id(id));
-            List<WebElement> svgElements = dropdown.findElements(By.tagName("svg"));
-            return !svgElements.isEmpty();
+            return getNavigationSnapshot().item(menuName)
+                    .map(NavigationSnapshot.Item::hasDropdownIndicator)
+                    .orElse(false);
         } catch (Exception e) {
             return false;
         }
@@ -497,30 +648,20 @@ public class HomePage extends Base {
     // Check if a menu item is a direct link (not dropdown)
     public boolean isDirectLink(String menuName) {
         try {
-            WebElement link = null;
-            if (menuName.equalsIgnoreCase("Dashboard")) {
-                link = dashboardLink;
-            } else if (menuName.equalsIgnoreCase("Markets")) {
-                link = marketsLink;
-            }
-
-            if (link != null) {
-                String tagName = link.getTagName();
-                String href = link.getAttribute("href");
-                return "a".equalsIgnoreCase(tagName) && href != null;
-            }
+            return getNavigationSnapshot().item(menuName)
+                    .map(NavigationSnapshot.Item::isDirectLink)
+                    .orElse(false);
         } catch (Exception e) {
             log.warn("Could not check if " + menuName + " is a direct link: " + e.getMessage());
             return false;
         }
-        return false;
     }
 
     // Switch back to original tab
     public void switchToOriginalTab() {
         try {
-            String originalWindow = driver.getWindowHandles().iterator().next();
-            driver.switchTo().window(originalWindow);
+            String originalWindow = getDriver().getWindowHandles().iterator().next();
+            getDriver().switchTo().window(originalWindow);
         } catch (Exception e) {
             log.error("Could not switch to original tab: " + e.getMessage());
         }
@@ -529,7 +670,7 @@ public class HomePage extends Base {
     // Verify URL contains specific text
     public boolean verifyUrlContains(String expectedText) {
         try {
-            return wait.until(ExpectedConditions.urlContains(expectedText));
+            return pageWait().until(ExpectedConditions.urlContains(expectedText));
         } catch (Exception e) {
             log.error("URL does not contain: " + expectedText);
             return false;
@@ -559,7 +700,7 @@ public class HomePage extends Base {
             if (!isThemesDropdownOpen()) {
                 waitForClickability(themesDropdownButton);
                 themesDropdownButton.click();
-                Thread.sleep(800); // Increased wait time for dropdown animation
+                WaitEngine.until(WaitEngine.dropdownAnimationFinished(themesDropdownMenu));
                 log.info("Opened Themes dropdown");
             }
         } catch (Exception e) {
@@ -567,6 +708,13 @@ public class HomePage extends Base {
         }
     }
 
+    /**
+     * Wait for the Themes dropdown to finish opening (e.g. after clicking the Themes category)
+     */
+    public void waitForThemesDropdown() {
+        WaitEngine.waitQuietly(WaitEngine.dropdownAnimationFinished(themesDropdownMenu), WaitPolicy.shortTimeout());
+    }
+
     // Check if Themes dropdown is open
     public boolean isThemesDropdownOpen() {
         try {
@@ -582,8 +730,8 @@ public class HomePage extends Base {
         try {
             if (isThemesDropdownOpen()) {
                 // Click outside the dropdown to close it
-                actions.moveByOffset(0, 0).click().perform();
-                Thread.sleep(500);
+                actions().moveByOffset(0, 0).click().perform();
+                WaitEngine.until(WaitEngine.condition("themes dropdown closed", driver -> !isThemesDropdownOpen()));
                 log.info("Closed Themes dropdown");
             }
         } catch (Exception e) {
@@ -597,7 +745,7 @@ public class HomePage extends Base {
         try {
             openThemesDropdown();
 
-            List<WebElement> menuItems = driver.findElements(
+            List<WebElement> menuItems = probeAll(
                     By.xpath("//div[contains(@class, 'style_items__rwhTi')]//button[contains(@class, 'style_item__i44hn')]")
             );
 
@@ -622,7 +770,6 @@ public class HomePage extends Base {
     public void clickThemeSubCategory(String subCategoryName) {
         try {
             openThemesDropdown();
-            Thread.sleep(300);
 
             WebElement subCategory = null;
 
@@ -638,16 +785,17 @@ public class HomePage extends Base {
                     break;
                 default:
                     // Try to find by text
-                    subCategory = driver.findElement(
+                    subCategory = getDriver().findElement(
                             By.xpath("//div[contains(@class, 'style_items__rwhTi')]//button[normalize-space()='" + subCategoryName + "']")
                     );
             }
 
             if (subCategory != null && subCategory.isDisplayed()) {
                 waitForClickability(subCategory);
+                String marker = WaitEngine.tableMarker(getDriver());
                 subCategory.click();
                 log.info("Clicked theme sub-category: " + subCategoryName);
-                Thread.sleep(2000); // Wait for content to load
+                waitForTradingPairsChangedFrom(marker);
             }
 
         } catch (Exception e) {
@@ -680,15 +828,20 @@ public class HomePage extends Base {
                     break;
                 default:
                     // Try to find by text if no specific ID
-                    categoryButton = driver.findElement(
+                    categoryButton = getDriver().findElement(
                             By.xpath("//span[normalize-space()='" + categoryName + "']")
                     );
             }
 
             if (categoryButton != null) {
                 waitForClickability(categoryButton);
+                String marker = WaitEngine.tableMarker(getDriver());
                 categoryButton.click();
                 log.info("Clicked category: " + categoryName);
+                // Themes only opens the sub-category dropdown; every other category swaps the table
+                if (categoryButton != themesCategoryBtn) {
+                    waitForTradingPairsChangedFrom(marker);
+                }
             }
         } catch (Exception e) {
             log.error("Could not click category " + categoryName + ": " + e.getMessage());
@@ -699,7 +852,7 @@ public class HomePage extends Base {
     // Method to check if Spot section is visible
     public boolean isSpotSectionVisible() {
         try {
-            List<WebElement> spotElements = driver.findElements(
+            List<WebElement> spotElements = probeAll(
                     By.xpath("//div[contains(text(), 'Spot')] | //h2[contains(text(), 'Spot')]")
             );
             return !spotElements.isEmpty() && spotElements.get(0).isDisplayed();
@@ -739,11 +892,11 @@ public class HomePage extends Base {
 
         try {
             // Find all header elements - adjust selector based on your actual UI
-            List<WebElement> headerElements = driver.findElements(
-                    By.xpath("//thead//th | //thead//div[contains(@class, 'header')]")
-            );
+            List<WebElement> headerElements = WaitEngine.waitQuietly(
+                    WaitEngine.elementsPresent(By.xpath("//thead//th | //thead//div[contains(@class, 'header')]")),
+                    WaitPolicy.defaultTimeout());
 
-            Assert.assertTrue(!headerElements.isEmpty(), "No column headers found");
+            Assert.assertTrue(headerElements != null && !headerElements.isEmpty(), "No column headers found");
 
             // Collect actual header texts
             List<String> actualHeaders = new ArrayList<>();
@@ -774,30 +927,26 @@ public class HomePage extends Base {
             }
 
         } catch (Exception e) {
-            Assert.fail("Column header validation failed: " + e.getMessage());
+            Assert.fail("Column header validation failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Validate trading pair symbol formatting
+     * Validate trading pair symbol formatting for every row (bulk-extracted, validated in memory)
      */
     public void validatePairSymbolFormatting() {
         try {
-            List<WebElement> tradingPairs = getTradingPairs();
+            List<TradingPair> tradingPairs = getTradingPairRecords();
             log.info("Total trading pairs found: " + tradingPairs.size());
 
             Assert.assertTrue(!tradingPairs.isEmpty(), "No trading pairs found for validation");
 
-            // Check first few pairs for proper formatting
-            int pairsToCheck = Math.min(5, tradingPairs.size());
             int validPairs = 0;
             int emptyPairs = 0;
+            List<String> invalidPairs = new ArrayList<>();
 
-            for (int i = 0; i < pairsToCheck; i++) {
-                WebElement pairElement = tradingPairs.get(i);
-
-                // Get the pair symbol
-                String pairSymbol = getPairSymbolFromRow(pairElement);
+            for (int i = 0; i < tradingPairs.size(); i++) {
+                String pairSymbol = tradingPairs.get(i).symbol();
 
                 // Skip empty symbols
                 if (pairSymbol.isEmpty()) {
@@ -806,86 +955,54 @@ public class HomePage extends Base {
                     continue;
                 }
 
-                log.info("Row " + i + " - Extracted pair symbol: '" + pairSymbol + "'");
-
                 // Validate pair symbol format
                 if (isValidPairSymbol(pairSymbol)) {
                     validPairs++;
-                    log.info("✓ Valid pair symbol: " + pairSymbol);
                 } else {
-                    log.warn("Invalid pair symbol format: '" + pairSymbol + "'");
+                    log.warn("Invalid pair symbol format at row " + i + ": '" + pairSymbol + "'");
+                    invalidPairs.add(pairSymbol);
                 }
             }
 
+            log.info("✓ " + validPairs + " valid pair symbols, " + emptyPairs + " empty rows, "
+                    + invalidPairs.size() + " invalid");
+
+            if (!invalidPairs.isEmpty()) {
+                log.warn("Invalid pair symbol formats: " + invalidPairs);
+            }
+
             // Make sure we found at least one valid pair
             Assert.assertTrue(validPairs > 0,
-                    "Should have at least one valid trading pair. Checked " + pairsToCheck +
+                    "Should have at least one valid trading pair. Checked " + tradingPairs.size() +
                             " rows, found " + validPairs + " valid pairs and " + emptyPairs + " empty rows");
 
         } catch (Exception e) {
-            Assert.fail("Pair symbol validation failed: " + e.getMessage());
+            Assert.fail("Pair symbol validation failed: " + e.getMessage(), e);
         }
     }
+
     /**
-     * Extract pair symbol from table row - updated for actual HTML structure
+     * Clean the first-cell text of a row into a pair symbol, falling back to the first word of the row
      */
-    public String getPairSymbolFromRow(WebElement row) {
-        try {
-            // Debug: Log the entire row HTML
-            log.info("Row HTML: " + row.getAttribute("outerHTML").substring(0, Math.min(200, row.getAttribute("outerHTML").length())));
-
-            // Debug: Log the entire row text
-            String fullRowText = row.getText();
-            log.info("Full row text: " + fullRowText);
-
-            // Try to get all cells in the row
-            List<WebElement> cells = row.findElements(By.tagName("td"));
-            log.info("Number of cells in row: " + cells.size());
-
-            if (!cells.isEmpty()) {
-                // Get text from first cell
-                String firstCellText = cells.get(0).getText().trim();
-                log.info("First cell text: '" + firstCellText + "'");
-
-                // If empty, try to find nested elements
-                if (firstCellText.isEmpty()) {
-                    List<WebElement> nestedElements = cells.get(0).findElements(By.xpath(".//div | .//span"));
-                    log.info("Found " + nestedElements.size() + " nested elements in first cell");
-
-                    StringBuilder pairText = new StringBuilder();
-                    for (WebElement nested : nestedElements) {
-                        String text = nested.getText().trim();
-                        if (!text.isEmpty()) {
-                            pairText.append(text).append(" ");
-                        }
-                    }
-                    firstCellText = pairText.toString().trim();
-                    log.info("Extracted from nested elements: '" + firstCellText + "'");
-                }
-
-                // Clean up the text
-                firstCellText = firstCellText.replace("_base", "").replace("_price", "").replace("\n", "/");
-
-                // If we have something, return it
-                if (!firstCellText.isEmpty()) {
-                    return firstCellText;
-                }
-            }
+    private String cleanPairSymbol(String firstCellText, String fullRowText) {
+        String symbol = firstCellText.trim().replace("_base", "").replace("_price", "").replace("\n", "/");
+        if (!symbol.isEmpty()) {
+            return symbol;
+        }
 
-            // Fallback: just get first word from row
-            String[] words = fullRowText.split("\\s+");
-            if (words.length > 0 && !words[0].isEmpty()) {
-                log.info("Fallback - returning first word: " + words[0]);
-                return words[0];
-            }
+        // Fallback: just get first word from row
+        String[] words = fullRowText.trim().split("\\s+");
+        if (words.length > 0 && !words[0].isEmpty()) {
+            log.info("Fallback - returning first word: " + words[0]);
+            return words[0];
+        }
 
-            log.warn("Could not extract pair symbol from row");
-            return "";
+        log.warn("Could not extract pair symbol from row");
+        return "";
+    }
 
-        } catch (Exception e) {
-            log.error("Error extracting pair symbol: " + e.getMessage());
-            return "";
-        }
+    private static String cleanPrice(String priceText) {
+        return priceText.trim().replaceAll("[^0-9.,]", "");
     }
 
     /**
@@ -913,44 +1030,25 @@ public class HomePage extends Base {
         return hasValidSymbols;
     }
 
-    /**
-     * Extract price from table row - updated for actual structure
-     */
-    public String getPriceFromRow(WebElement row) {
-        try {
-            List<WebElement> cells = row.findElements(By.tagName("td"));
-            if (cells.size() >= 2) {
-                String priceText = cells.get(1).getText().trim();
-                priceText = priceText.replaceAll("[^0-9.,]", "");
-                return priceText;
-            }
-        } catch (Exception e) {
-            log.error("Error extracting price: " + e.getMessage());
-        }
-        return "";
-    }
-
     public void validatePriceFormatting() {
         try {
-            List<WebElement> tradingPairs = getTradingPairs();
+            List<TradingPair> tradingPairs = getTradingPairRecords();
             Assert.assertTrue(!tradingPairs.isEmpty(), "No trading pairs found for price validation");
 
-            // Check prices in first few pairs
-            int pairsToCheck = Math.min(3, tradingPairs.size());
-
-            for (int i = 0; i < pairsToCheck; i++) {
-                WebElement pairElement = tradingPairs.get(i);
-                String price = getPriceFromRow(pairElement);
-
-                if (price != null && !price.isEmpty()) {
-                    log.info("Validating price: " + price);
-                    Assert.assertTrue(isValidPriceFormat(price),
-                            "Invalid price format: " + price);
+            // Check the price of every pair (in memory, no further driver calls)
+            List<String> invalidPrices = new ArrayList<>();
+            for (TradingPair pair : tradingPairs) {
+                String price = pair.price();
+                if (!price.isEmpty() && !isValidPriceFormat(price)) {
+                    invalidPrices.add(pair.symbol() + "=" + price);
                 }
             }
+            log.info("Validated prices of " + tradingPairs.size() + " trading pairs");
+
+            Assert.assertTrue(invalidPrices.isEmpty(), "Invalid price format: " + invalidPrices);
 
         } catch (Exception e) {
-            Assert.fail("Price validation failed: " + e.getMessage());
+            Assert.fail("Price validation failed: " + e.getMessage(), e);
         }
     }
 
@@ -972,14 +1070,15 @@ public class HomePage extends Base {
     public void validateUIElements() {
         try {
             // Verify trading table exists
-            WebElement tradingTable = driver.findElement(By.xpath("//table | //div[contains(@class, 'table')]"));
+            WebElement tradingTable = WaitEngine.until(
+                    WaitEngine.elementsPresent(By.xpath("//table | //div[contains(@class, 'table')]"))).get(0);
             Assert.assertTrue(tradingTable.isDisplayed(), "Trading table should be visible");
 
             // Verify category buttons are present - Fixed: removed "homePage."
             Assert.assertTrue(categoryButtons.size() > 0, "Category buttons should be present");
 
             // Verify search/filter functionality exists (if applicable)
-            List<WebElement> searchElements = driver.findElements(
+            List<WebElement> searchElements = probeAll(
                     By.xpath("//input[contains(@placeholder, 'Search')] | //div[contains(@class, 'search')]")
             );
             if (!searchElements.isEmpty()) {
@@ -987,7 +1086,7 @@ public class HomePage extends Base {
             }
 
             // Verify sort indicators exist (if applicable)
-            List<WebElement> sortElements = driver.findElements(
+            List<WebElement> sortElements = probeAll(
                     By.xpath("//th[contains(@class, 'sort')] | //div[contains(@class, 'sort')]")
             );
             if (!sortElements.isEmpty()) {
@@ -997,7 +1096,7 @@ public class HomePage extends Base {
             log.info("All required UI elements are present");
 
         } catch (Exception e) {
-            Assert.fail("UI elements validation failed: " + e.getMessage());
+            Assert.fail("UI elements validation failed: " + e.getMessage(), e);
         }
     }
 
@@ -1050,7 +1149,8 @@ public class HomePage extends Base {
 
     // Scroll to banners section
     public void scrollToBanners() {
-        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", slickTrack);
+        WaitEngine.until(WaitEngine.present(slickTrack));
+        ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", slickTrack);
     }
 
     // Get count of actual banners
@@ -1077,7 +1177,7 @@ public class HomePage extends Base {
 
     // Wait for banners to load
     public void waitForBannersToLoad() {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        WebDriverWait wait = new WebDriverWait(getDriver(), WaitPolicy.defaultTimeout());
         wait.until(d -> !marketingBanners.isEmpty() && marketingBanners.get(0).isDisplayed());
     }
 
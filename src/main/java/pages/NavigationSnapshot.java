@@ -0,0 +1,40 @@
+package pages;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * State of the top navigation bar, read in one script call by HomePage.getNavigationSnapshot().
+ * Assertions on menu items run against this snapshot instead of querying each element separately.
+ */
+public record NavigationSnapshot(boolean containerVisible, List<Item> items) {
+
+    public NavigationSnapshot {
+        items = List.copyOf(items);
+    }
+
+    /**
+     * One top-nav entry. name is the canonical menu name (e.g. "About Us"), text the rendered label
+     */
+    public record Item(String name, String text, boolean present, boolean visible, String tagName, String href,
+                       boolean hasDropdownIndicator, double x, double y, double width, double height) {
+
+        public boolean isDirectLink() {
+            return present && "a".equalsIgnoreCase(tagName) && href != null;
+        }
+    }
+
+    public Optional<Item> item(String name) {
+        return items.stream().filter(item -> item.name().equalsIgnoreCase(name)).findFirst();
+    }
+
+    /**
+     * Names of the menu items that are displayed with a label matching their menu
+     */
+    public List<String> visibleMenuNames() {
+        return items.stream()
+                .filter(item -> item.visible() && item.text().contains(item.name().split(" ")[0]))
+                .map(Item::name)
+                .toList();
+    }
+}
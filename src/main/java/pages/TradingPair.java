@@ -0,0 +1,8 @@
+package pages;
+
+/**
+ * One row of the Spot trading pairs table, as extracted in bulk by HomePage.getTradingPairRecords().
+ * Values are the cleaned cell texts (empty when the column is not present on the page).
+ */
+public record TradingPair(String symbol, String price, String change, String volume) {
+}
@@ -0,0 +1,51 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed store for report artifacts under reports/artifacts.
+ * Files are named by the SHA-256 of their bytes, so identical artifacts (e.g. the same error page captured by
+ * several failures) are written once, and the report links to them instead of inlining them.
+ */
+public final class ArtifactStore {
+
+    private static final Path REPORT_DIR = Paths.get("./reports");
+    private static final String ARTIFACT_DIR = "artifacts";
+
+    private ArtifactStore() {
+    }
+
+    /**
+     * Store the bytes (no-op if already present) and return their path relative to the report directory
+     */
+    public static String store(byte[] content, String extension) throws IOException {
+        String hash = sha256(content);
+        // Two-character fan-out keeps directories small
+        String relativePath = ARTIFACT_DIR + "/" + hash.substring(0, 2) + "/" + hash + "." + extension;
+        Path target = REPORT_DIR.resolve(relativePath);
+
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            // Write then move, so a concurrent writer of the same content never exposes a partial file
+            Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(tmp, content);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return relativePath;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of pre-launched browsers.
+ * Sessions are leased for one test method and reset (cookies, storage, extra tabs) when released,
+ * so the browser cold start is paid once per worker instead of once per test.
+ * A pool size of 0 disables pooling: every lease launches a new browser and every release quits it.
+ */
+public final class BrowserPool {
+
+    private static final Logger log = LogManager.getLogger(BrowserPool.class);
+
+    private static final LinkedBlockingDeque<PooledBrowser> idle = new LinkedBlockingDeque<>();
+    private static final Map<WebDriver, PooledBrowser> leased = new ConcurrentHashMap<>();
+    private static final AtomicInteger liveSessions = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserPool::shutdown, "browser-pool-shutdown"));
+    }
+
+    private BrowserPool() {
+    }
+
+    /**
+     * Lease a healthy browser for the given browser type, launching one with the factory if the pool has room
+     */
+    public static WebDriver lease(String browserName, Supplier<WebDriver> factory) {
+        trimIdle();
+        if (getPoolSize() <= 0) {
+            return factory.get();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(getLeaseTimeoutSeconds());
+        while (true) {
+            PooledBrowser browser = idle.poll();
+            if (browser != null) {
+                if (!browser.browserName.equalsIgnoreCase(browserName) || !isHealthy(browser.driver)) {
+                    evict(browser, "unhealthy or different browser type");
+                    continue;
+                }
+                return checkOut(browser);
+            }
+
+            if (tryReserveSlot()) {
+                try {
+                    long start = System.currentTimeMillis();
+                    WebDriver driver = factory.get();
+                    log.info("Launched pooled " + browserName + " browser in " + (System.currentTimeMillis() - start)
+                            + " ms (" + liveSessions.get() + "/" + getPoolSize() + " live)");
+                    return checkOut(new PooledBrowser(driver, browserName));
+                } catch (RuntimeException e) {
+                    liveSessions.decrementAndGet();
+                    throw e;
+                }
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("Timed out after " + getLeaseTimeoutSeconds()
+                        + "s waiting for a pooled " + browserName + " browser");
+            }
+            try {
+                // Wake up periodically: an eviction elsewhere frees a slot without returning a browser
+                browser = idle.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(500)), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a pooled browser", e);
+            }
+            if (browser != null) {
+                idle.offerFirst(browser);
+            }
+        }
+    }
+
+    /**
+     * Return a leased browser. It is reset and made available again, or quit if it is worn out or broken
+     */
+    public static void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+
+        PooledBrowser browser = leased.remove(driver);
+        if (browser == null) {
+            // Not pool-managed (pooling disabled or already evicted)
+            quitQuietly(driver);
+            return;
+        }
+
+        if (browser.uses >= getMaxUses()) {
+            evict(browser, "reached " + browser.uses + " uses");
+            return;
+        }
+        // pool.size is hot-reloadable: after it was lowered, surplus browsers are quit instead of parked
+        if (idle.size() + leased.size() >= getPoolSize()) {
+            evict(browser, "pool.size lowered to " + getPoolSize());
+            return;
+        }
+
+        try {
+            reset(driver);
+            idle.offer(browser);
+        } catch (Exception e) {
+            evict(browser, "reset failed: " + e.getMessage());
+        }
+        trimIdle();
+    }
+
+    /**
+     * Quit a leased browser instead of returning it (e.g. after a crash)
+     */
+    public static void discard(WebDriver driver) {
+        PooledBrowser browser = driver == null ? null : leased.remove(driver);
+        if (browser != null) {
+            evict(browser, "discarded by caller");
+        } else {
+            quitQuietly(driver);
+        }
+    }
+
+    /**
+     * Quit every pooled browser
+     */
+    public static void shutdown() {
+        List<PooledBrowser> all = new ArrayList<>();
+        idle.drainTo(all);
+        all.addAll(leased.values());
+        leased.clear();
+        for (PooledBrowser browser : all) {
+            evict(browser, "pool shutdown");
+        }
+    }
+
+    /**
+     * Quit idle browsers beyond the current pool.size (all of them when pooling was switched off)
+     */
+    private static void trimIdle() {
+        while (idle.size() + leased.size() > Math.max(0, getPoolSize())) {
+            PooledBrowser surplus = idle.pollLast();
+            if (surplus == null) {
+                return;
+            }
+            evict(surplus, "pool.size lowered to " + getPoolSize());
+        }
+    }
+
+    private static WebDriver checkOut(PooledBrowser browser) {
+        browser.uses++;
+        leased.put(browser.driver, browser);
+        return browser.driver;
+    }
+
+    private static boolean tryReserveSlot() {
+        int current;
+        do {
+            current = liveSessions.get();
+            if (current >= getPoolSize()) {
+                return false;
+            }
+        } while (!liveSessions.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bring a browser back to a clean single-tab state
+     */
+    private static void reset(WebDriver driver) {
+        Set<String> handles = driver.getWindowHandles();
+        String keep = handles.iterator().next();
+        for (String handle : handles) {
+            if (!handle.equals(keep)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(keep);
+
+        // Storage is per origin, so clear it while still on the page under test
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        driver.manage().deleteAllCookies();
+        if (driver instanceof HasCdp) {
+            // Also drop cookies of every other domain visited (e.g. app store tabs)
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        }
+        driver.get("about:blank");
+        // Every test starts from the same window geometry, whatever the previous one did to the window
+        driver.manage().window().maximize();
+    }
+
+    private static void evict(PooledBrowser browser, String reason) {
+        log.info("Evicting pooled " + browser.browserName + " browser after " + browser.uses + " use(s): " + reason);
+        quitQuietly(browser.driver);
+        liveSessions.decrementAndGet();
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            log.warn("Error quitting browser: " + e.getMessage());
+        } finally {
+            VirtualDisplay.releaseFor(driver);
+        }
+    }
+
+    private static int getPoolSize() {
+        return Config.getInt("pool.size", 4);
+    }
+
+    private static int getMaxUses() {
+        return Config.getInt("pool.maxUses", 20);
+    }
+
+    private static int getLeaseTimeoutSeconds() {
+        return Config.getInt("pool.leaseTimeoutSeconds", 300);
+    }
+
+    private static final class PooledBrowser {
+        private final WebDriver driver;
+        private final String browserName;
+        private int uses;
+
+        private PooledBrowser(WebDriver driver, String browserName) {
+            this.driver = driver;
+            this.browserName = browserName;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of every WebDriver command (each one an HTTP round-trip to the driver), recorded through Selenium's
+ * EventFiringDecorator. Commands are counted per type ("element.getText", "driver.findElement"), per test and per
+ * StepTimer step, so chatty page-object methods stand out. Suite-wide figures go to the report and to
+ * reports/webdriver_commands.json. Enabled by metrics.commands (default true).
+ */
+public final class CommandMetrics {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String OUTSIDE_STEPS = "(outside steps)";
+
+    private static final ConcurrentMap<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LatencyHistogram> steps = new ConcurrentHashMap<>();
+    private static final List<TestCommands> finished = new CopyOnWriteArrayList<>();
+    // Names per method, one map per target kind: findElement on the driver and on an element are different commands
+    private static final ConcurrentMap<Method, String> elementCommands = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Method, String> driverCommands = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Method, String> otherCommands = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<TestCommands> tests = new ThreadLocal<>();
+    private static final ThreadLocal<StartTimes> startTimes = ThreadLocal.withInitial(StartTimes::new);
+
+    // Start times of the commands in flight on this thread; a primitive stack so timing allocates nothing
+    private static final class StartTimes {
+        private long[] nanos = new long[8];
+        private int depth;
+
+        private void push(long value) {
+            if (depth == nanos.length) {
+                nanos = Arrays.copyOf(nanos, depth * 2);
+            }
+            nanos[depth++] = value;
+        }
+
+        private long pop() {
+            return depth == 0 ? -1 : nanos[--depth];
+        }
+    }
+
+    /**
+     * Commands issued by one test attempt
+     */
+    public static final class TestCommands {
+        private final String testName;
+        private final Map<String, LatencyHistogram> byCommand = new HashMap<>();
+        private final Map<String, Integer> errorsByCommand = new HashMap<>();
+        private final Map<String, long[]> bySteps = new HashMap<>();
+
+        private TestCommands(String testName) {
+            this.testName = testName;
+        }
+
+        public String testName() {
+            return testName;
+        }
+
+        public long count() {
+            return byCommand.values().stream().mapToLong(LatencyHistogram::count).sum();
+        }
+
+        public long totalNanos() {
+            return byCommand.values().stream().mapToLong(LatencyHistogram::totalNanos).sum();
+        }
+
+        /**
+         * Command counts per type and per step for the report
+         */
+        public String toHtml(int maxRows) {
+            StringBuilder html = new StringBuilder("<details><summary>WebDriver commands (").append(count())
+                    .append(" commands, ").append(String.format("%.0f", LatencyHistogram.toMillis(totalNanos())))
+                    .append(" ms)</summary><pre>");
+            appendCommands(html, byCommand, errorsByCommand);
+            html.append(String.format("%n%8s %10s  %s%n", "commands", "total ms", "step"));
+            bySteps.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed())
+                    .limit(maxRows)
+                    .forEach(e -> html.append(String.format("%8d %10.1f  %s%n", e.getValue()[0],
+                            LatencyHistogram.toMillis(e.getValue()[1]), escape(e.getKey()))));
+            return html.append("</pre></details>").toString();
+        }
+    }
+
+    private static final class Listener implements WebDriverListener {
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            startTimes.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            record(target, method, false);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            record(target, method, true);
+        }
+    }
+
+    private CommandMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return Config.getBoolean("metrics.commands", true);
+    }
+
+    /**
+     * The driver wrapped in the instrumenting decorator when metrics.commands is enabled, otherwise the driver itself
+     */
+    public static WebDriver instrument(WebDriver driver) {
+        return isEnabled() ? new EventFiringDecorator<>(new Listener()).decorate(driver) : driver;
+    }
+
+    /**
+     * Start attributing this thread's commands to a test (discarding anything left over)
+     */
+    public static void begin(String testName) {
+        tests.set(new TestCommands(testName));
+    }
+
+    /**
+     * Stop attributing commands on this thread; returns what the test issued, or null if nothing was begun
+     */
+    public static TestCommands end() {
+        TestCommands test = tests.get();
+        tests.remove();
+        if (test != null && !test.byCommand.isEmpty()) {
+            finished.add(test);
+        }
+        return test;
+    }
+
+    public static Map<String, LatencyHistogram> aggregate() {
+        return commands;
+    }
+
+    /**
+     * Suite-wide percentiles per command type and the steps issuing the most commands, for the report
+     */
+    public static String aggregateHtml(int maxSteps) {
+        StringBuilder html = new StringBuilder("<pre>");
+        Map<String, Integer> errorCounts = new HashMap<>();
+        errors.forEach((command, count) -> errorCounts.put(command, count.intValue()));
+        appendCommands(html, commands, errorCounts);
+        html.append(String.format("%nChattiest steps%n%8s %10s %10s  %s%n", "commands", "p50 ms", "total ms", "step"));
+        steps.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().count()).reversed())
+                .limit(maxSteps)
+                .forEach(e -> html.append(String.format("%8d %10.1f %10.0f  %s%n", e.getValue().count(),
+                        LatencyHistogram.toMillis(e.getValue().percentileNanos(50)),
+                        LatencyHistogram.toMillis(e.getValue().totalNanos()), escape(e.getKey()))));
+        return html.append("</pre>").toString();
+    }
+
+    /**
+     * Suite-wide and per-test figures as JSON, for dashboards and run-to-run comparison
+     */
+    public static void writeJson(Path file) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode().put("run", RunHistoryStore.RUN_ID);
+        ObjectNode commandsNode = root.putObject("commands");
+        commands.forEach((command, histogram) -> putHistogram(commandsNode.putObject(command), histogram)
+                .put("errors", errors.containsKey(command) ? errors.get(command).longValue() : 0));
+        ObjectNode stepsNode = root.putObject("steps");
+        steps.forEach((step, histogram) -> putHistogram(stepsNode.putObject(step), histogram));
+
+        ArrayNode testsNode = root.putArray("tests");
+        for (TestCommands test : finished) {
+            ObjectNode testNode = testsNode.addObject()
+                    .put("test", test.testName)
+                    .put("commands", test.count())
+                    .put("totalMs", LatencyHistogram.toMillis(test.totalNanos()));
+            ObjectNode byCommand = testNode.putObject("byCommand");
+            test.byCommand.forEach((command, histogram) -> putHistogram(byCommand.putObject(command), histogram)
+                    .put("errors", test.errorsByCommand.getOrDefault(command, 0)));
+            ObjectNode bySteps = testNode.putObject("bySteps");
+            test.bySteps.forEach((step, t) -> bySteps.putObject(step)
+                    .put("count", t[0])
+                    .put("totalMs", LatencyHistogram.toMillis(t[1])));
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    private static void record(Object target, Method method, boolean failed) {
+        long start = startTimes.get().pop();
+        if (start < 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        String command = commandName(target, method);
+        String step = StepTimer.currentPath();
+        if (step == null) {
+            step = OUTSIDE_STEPS;
+        }
+
+        commands.computeIfAbsent(command, c -> new LatencyHistogram()).record(elapsed);
+        steps.computeIfAbsent(step, s -> new LatencyHistogram()).record(elapsed);
+        if (failed) {
+            errors.computeIfAbsent(command, c -> new LongAdder()).increment();
+        }
+
+        // Commands from background threads (e.g. the video recorder) count for the suite only
+        TestCommands test = tests.get();
+        if (test != null) {
+            test.byCommand.computeIfAbsent(command, c -> new LatencyHistogram()).record(elapsed);
+            long[] stepTiming = test.bySteps.computeIfAbsent(step, s -> new long[2]);
+            stepTiming[0]++;
+            stepTiming[1] += elapsed;
+            if (failed) {
+                test.errorsByCommand.merge(command, 1, Integer::sum);
+            }
+        }
+    }
+
+    // "element.click", "driver.executeScript", "navigation.to", "window.maximize", ...
+    private static String commandName(Object target, Method method) {
+        if (target instanceof WebElement) {
+            return elementCommands.computeIfAbsent(method, m -> "element." + m.getName());
+        }
+        if (target instanceof WebDriver) {
+            return driverCommands.computeIfAbsent(method, m -> "driver." + m.getName());
+        }
+        return otherCommands.computeIfAbsent(method,
+                m -> m.getDeclaringClass().getSimpleName().toLowerCase() + "." + m.getName());
+    }
+
+    private static void appendCommands(StringBuilder html, Map<String, LatencyHistogram> histograms,
+                                       Map<String, Integer> errorCounts) {
+        html.append(String.format("%8s %7s %10s %10s %10s %10s %10s  %s%n", "calls", "errors", "p50 ms", "p90 ms",
+                "p99 ms", "max ms", "total ms", "command"));
+        List<Map.Entry<String, LatencyHistogram>> rows = new ArrayList<>(histograms.entrySet());
+        rows.sort(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().totalNanos()).reversed());
+        for (Map.Entry<String, LatencyHistogram> row : rows) {
+            LatencyHistogram h = row.getValue();
+            html.append(String.format("%8d %7d %10.1f %10.1f %10.1f %10.1f %10.0f  %s%n", h.count(),
+                    errorCounts.getOrDefault(row.getKey(), 0), LatencyHistogram.toMillis(h.percentileNanos(50)),
+                    LatencyHistogram.toMillis(h.percentileNanos(90)), LatencyHistogram.toMillis(h.percentileNanos(99)),
+                    LatencyHistogram.toMillis(h.maxNanos()), LatencyHistogram.toMillis(h.totalNanos()), escape(row.getKey())));
+        }
+    }
+
+    private static ObjectNode putHistogram(ObjectNode node, LatencyHistogram histogram) {
+        return node.put("count", histogram.count())
+                .put("p50Ms", LatencyHistogram.toMillis(histogram.percentileNanos(50)))
+                .put("p90Ms", LatencyHistogram.toMillis(histogram.percentileNanos(90)))
+                .put("p99Ms", LatencyHistogram.toMillis(histogram.percentileNanos(99)))
+                .put("maxMs", LatencyHistogram.toMillis(histogram.maxNanos()))
+                .put("totalMs", LatencyHistogram.toMillis(histogram.totalNanos()));
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -12,13 +12,10 @@ import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Properties;
 import java.util.Random;
 
 import java.security.SecureRandom;
@@ -27,7 +24,11 @@ public class CommonActions extends Base {
 
     WebDriverWait wait;
     public String company_name = getSaltString();
-    JavascriptExecutor js = (JavascriptExecutor) driver;
+
+    // Resolved per call so a shared instance always targets the calling thread's browser
+    protected JavascriptExecutor js() {
+        return (JavascriptExecutor) getDriver();
+    }
 
     // generate the current date and time
     public String generateDateTimeString() {
@@ -36,29 +37,9 @@ public class CommonActions extends Base {
         return dateFormat.format(dateNow).toString();
     }
 
-    // Load web_config.properties file
-    public CommonActions() {
-
-        prop = new Properties();
-
-        try {
-            FileInputStream propFile = new FileInputStream(
-                    System.getProperty("user.dir") + "/src/main/resources/web_config.properties");
-            prop.load(propFile);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    public Properties getProp() {
-        return prop;
-    }
-
     // takes screenshot and saves the screenshot in the reports folder
     public void takeScreenshot(String screenshotName) {
-        TakesScreenshot screenshot = (TakesScreenshot) driver;
+        TakesScreenshot screenshot = (TakesScreenshot) getDriver();
         File file = screenshot.getScreenshotAs(OutputType.FILE);
         try {
             FileUtils.copyFile(file, new File("./reports/" + screenshotName + ".png"));
@@ -0,0 +1,227 @@
+package utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Framework configuration. web_config.properties is read once into an immutable map; each lookup then
+ * layers overrides on top of it: system property (-Dpool.size=2), then environment variable (MB_POOL_SIZE=2),
+ * then the file, then the caller's default. Safe for concurrent readers.
+ * <p>
+ * For long soak runs the file is watched (config.watch=true): an edit is parsed into a new map and published
+ * atomically, so tests started after the change see the new values without a JVM restart. A file that fails
+ * to parse leaves the previous values in place.
+ */
+public final class Config {
+
+    private static final Logger log = LogManager.getLogger(Config.class);
+
+    private static final String CONFIG_FILE = "web_config.properties";
+    // Namespaces the environment overrides: unprefixed names collide with common variables (BROWSER, HOME, ...)
+    private static final String ENV_PREFIX = "MB_";
+    private static final long RELOAD_DEBOUNCE_MS = 200;
+
+    private static final AtomicReference<Map<String, String>> fileValues = new AtomicReference<>(load());
+
+    static {
+        if (getBoolean("config.watch", true)) {
+            startWatcher();
+        }
+    }
+
+    private Config() {
+    }
+
+    /**
+     * Browser to run: chrome, firefox or edge
+     */
+    public static String browser() {
+        return get("browser", "chrome");
+    }
+
+    /**
+     * Application under test
+     */
+    public static String baseUrl() {
+        return get("multibank_url", null);
+    }
+
+    public static String backofficeUrl() {
+        return get("stg-backoffice.url", null);
+    }
+
+    /**
+     * Effective value of a key, or defaultValue if no layer sets it
+     */
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(toEnvName(key));
+        }
+        if (value == null) {
+            value = fileValues.get().get(key);
+        }
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value for " + key + ": " + value + " - using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value for " + key + ": " + value + " - using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Copy of the effective configuration, for code that still expects java.util.Properties
+     */
+    public static Properties asProperties() {
+        Properties properties = new Properties();
+        for (String key : fileValues.get().keySet()) {
+            properties.setProperty(key, get(key, ""));
+        }
+        return properties;
+    }
+
+    // pool.size -> MB_POOL_SIZE, stg-backoffice.url -> MB_STG_BACKOFFICE_URL
+    private static String toEnvName(String key) {
+        return ENV_PREFIX + key.toUpperCase().replaceAll("[^A-Z0-9]", "_");
+    }
+
+    /**
+     * Re-read the file and publish it if it changed. Returns false if the file could not be read
+     */
+    public static boolean reload() {
+        Path file = configFile();
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not reload " + file + " - keeping the previous configuration: " + e.getMessage());
+            return false;
+        }
+
+        Map<String, String> updated = toMap(properties);
+        Map<String, String> previous = fileValues.getAndSet(updated);
+        TreeSet<String> changed = new TreeSet<>(updated.keySet());
+        changed.addAll(previous.keySet());
+        changed.removeIf(key -> Objects.equals(previous.get(key), updated.get(key)));
+        if (!changed.isEmpty()) {
+            log.info("Reloaded " + CONFIG_FILE + ", changed keys: " + changed);
+        }
+        return true;
+    }
+
+    // -Dconfig.file points a soak run at a properties file outside the checkout
+    private static Path configFile() {
+        String override = System.getProperty("config.file");
+        return override != null ? Paths.get(override)
+                : Paths.get(System.getProperty("user.dir"), "src", "main", "resources", CONFIG_FILE);
+    }
+
+    private static void startWatcher() {
+        Path file = configFile().toAbsolutePath();
+        Path dir = file.getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return;
+        }
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            // Editors often save by writing a new file and renaming it over the old one, hence CREATE as well
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            Thread watcher = new Thread(() -> watch(watchService, file), "config-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            log.info("Watching " + file + " for changes");
+        } catch (IOException e) {
+            log.warn("Could not watch " + file + " - configuration changes need a restart: " + e.getMessage());
+        }
+    }
+
+    private static void watch(WatchService watchService, Path file) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean touched = key.pollEvents().stream()
+                        .anyMatch(event -> file.getFileName().equals(event.context()));
+                key.reset();
+                if (!touched) {
+                    continue;
+                }
+                // One save can produce several events; let the writer finish, then reload once
+                TimeUnit.MILLISECONDS.sleep(RELOAD_DEBOUNCE_MS);
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> load() {
+        Properties properties = new Properties();
+        Path file = configFile();
+        try (InputStream in = Files.exists(file) ? Files.newInputStream(file)
+                : Config.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (in == null) {
+                log.warn(CONFIG_FILE + " not found - using system properties, environment and defaults only");
+            } else {
+                properties.load(in);
+                log.info("Loaded " + CONFIG_FILE + " (" + properties.size() + " keys)");
+            }
+        } catch (IOException e) {
+            log.error("Could not read " + CONFIG_FILE + ": " + e.getMessage());
+        }
+
+        return toMap(properties);
+    }
+
+    private static Map<String, String> toMap(Properties properties) {
+        Map<String, String> values = new HashMap<>();
+        properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+        return Map.copyOf(values);
+    }
+}
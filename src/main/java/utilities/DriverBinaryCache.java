@@ -0,0 +1,188 @@
+package utilities;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves browser driver binaries once per JVM.
+ * Resolutions are also persisted in a local cache keyed by browser and installed browser version,
+ * so later runs (including offline/air-gapped agents) reuse the binary without contacting a resolver.
+ */
+public final class DriverBinaryCache {
+
+    private static final Logger log = LogManager.getLogger(DriverBinaryCache.class);
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+(\\.\\d+)+)");
+    private static final Map<String, String> resolvedPaths = new ConcurrentHashMap<>();
+
+    private DriverBinaryCache() {
+    }
+
+    /**
+     * Make the driver binary for the browser available to Selenium (memoized per JVM)
+     */
+    public static void setup(String browserName) {
+        resolvedPaths.computeIfAbsent(browserName.toLowerCase(), DriverBinaryCache::resolve);
+    }
+
+    private static String resolve(String browser) {
+        long start = System.currentTimeMillis();
+        WebDriverManager manager = managerFor(browser);
+        String browserVersion = detectBrowserVersion(manager);
+        String cacheKey = browser + "." + browserVersion;
+        Properties cache = loadCache();
+
+        String cachedPath = cache.getProperty(cacheKey);
+        if (isUsableBinary(cachedPath)) {
+            System.setProperty(driverProperty(browser), cachedPath);
+            log.info("Driver for " + cacheKey + " served from local cache in "
+                    + (System.currentTimeMillis() - start) + " ms: " + cachedPath);
+            return cachedPath;
+        }
+
+        if (Config.getBoolean("driver.offline", false)) {
+            return fallbackToCachedBinary(browser, cache, "offline mode and no cached driver for " + cacheKey);
+        }
+
+        try {
+            manager.setup();
+            String driverPath = manager.getDownloadedDriverPath();
+            if (driverPath != null) {
+                System.setProperty(driverProperty(browser), driverPath);
+                storeCacheEntry(cacheKey, driverPath);
+            }
+            log.info("Driver for " + cacheKey + " resolved in " + (System.currentTimeMillis() - start)
+                    + " ms: " + driverPath);
+            return driverPath == null ? "" : driverPath;
+        } catch (RuntimeException e) {
+            log.warn("Driver resolution failed for " + cacheKey + ": " + e.getMessage());
+            return fallbackToCachedBinary(browser, cache, e.getMessage());
+        }
+    }
+
+    /**
+     * Use the newest cached binary of any browser version (better than failing on an air-gapped agent)
+     */
+    private static String fallbackToCachedBinary(String browser, Properties cache, String reason) {
+        Optional<String> fallback = cache.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(browser + "."))
+                .map(cache::getProperty)
+                .filter(DriverBinaryCache::isUsableBinary)
+                .max((a, b) -> Long.compare(Paths.get(a).toFile().lastModified(), Paths.get(b).toFile().lastModified()));
+
+        if (fallback.isPresent()) {
+            System.setProperty(driverProperty(browser), fallback.get());
+            log.warn("Using cached " + browser + " driver " + fallback.get() + " (" + reason + ")");
+            return fallback.get();
+        }
+        throw new IllegalStateException("No driver available for " + browser + ": " + reason);
+    }
+
+    /**
+     * Detect the installed browser version locally by asking the binary itself (no network)
+     */
+    private static String detectBrowserVersion(WebDriverManager manager) {
+        try {
+            Optional<Path> browserPath = manager.getBrowserPath();
+            if (browserPath.isPresent()) {
+                Process process = new ProcessBuilder(browserPath.get().toString(), "--version")
+                        .redirectErrorStream(true)
+                        .start();
+                if (process.waitFor(5, TimeUnit.SECONDS)) {
+                    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                    Matcher matcher = VERSION_PATTERN.matcher(output);
+                    if (matcher.find()) {
+                        return matcher.group(1);
+                    }
+                } else {
+                    process.destroyForcibly();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not detect browser version: " + e.getMessage());
+        }
+        return "unknown";
+    }
+
+    private static boolean isUsableBinary(String path) {
+        return path != null && !path.isEmpty() && Files.isRegularFile(Paths.get(path));
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "chrome":
+                return WebDriverManager.chromedriver();
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+
+    private static String driverProperty(String browser) {
+        switch (browser) {
+            case "chrome":
+                return "webdriver.chrome.driver";
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+
+    private static Path getCacheFile() {
+        return Paths.get(Config.get("driver.cache.file",
+                System.getProperty("user.home") + "/.cache/multibank-web-ui/driver-resolution.properties"));
+    }
+
+    private static Properties loadCache() {
+        Properties cache = new Properties();
+        Path cacheFile = getCacheFile();
+        if (Files.exists(cacheFile)) {
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                cache.load(in);
+            } catch (IOException e) {
+                log.warn("Could not read driver cache " + cacheFile + ": " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private static synchronized void storeCacheEntry(String cacheKey, String driverPath) {
+        Path cacheFile = getCacheFile();
+        // Re-read so entries written by other browsers/runs since startup are kept
+        Properties cache = loadCache();
+        cache.setProperty(cacheKey, driverPath);
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            // Write then move, so a concurrent run never reads a half-written cache
+            Path tmp = Files.createTempFile(cacheFile.getParent(), "driver-resolution", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                cache.store(out, "Driver binaries keyed by <browser>.<browser version>");
+            }
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write driver cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package utilities;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * Per-thread WebDriver registry.
+ * Each TestNG worker thread owns exactly one driver, so tests running with parallel="methods"
+ * never see (or quit) another test's browser.
+ */
+public final class DriverManager {
+
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
+
+    private DriverManager() {
+    }
+
+    /**
+     * Get the driver bound to the calling thread (null if none was started)
+     */
+    public static WebDriver getDriver() {
+        return DRIVER.get();
+    }
+
+    /**
+     * Bind a driver to the calling thread
+     */
+    public static void setDriver(WebDriver driver) {
+        DRIVER.set(driver);
+    }
+
+    /**
+     * Release the calling thread's driver reference (does not quit the browser)
+     */
+    public static void unload() {
+        DRIVER.remove();
+    }
+
+    /**
+     * Search context that resolves the calling thread's driver on every lookup.
+     * Used by PageFactory so a single page object instance can be shared by parallel tests.
+     */
+    public static SearchContext currentContext() {
+        return new SearchContext() {
+            @Override
+            public List<WebElement> findElements(By by) {
+                return requireDriver().findElements(by);
+            }
+
+            @Override
+            public WebElement findElement(By by) {
+                return requireDriver().findElement(by);
+            }
+        };
+    }
+
+    private static WebDriver requireDriver() {
+        WebDriver driver = DRIVER.get();
+        if (driver == null) {
+            throw new IllegalStateException("No WebDriver bound to thread " + Thread.currentThread().getName());
+        }
+        return driver;
+    }
+}
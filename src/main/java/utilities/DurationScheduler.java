@@ -0,0 +1,119 @@
+package utilities;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Orders and shards test methods by their recorded duration (median over the run history).
+ * Methods start longest first (LPT), so with N workers the slow tests no longer land at the end and the
+ * wall-clock time approaches total / N. With shard.count > 1 the suite is split the same way into balanced
+ * shards and only shard.index (0-based) runs; every agent must see the same history to get disjoint shards.
+ */
+public class DurationScheduler implements IMethodInterceptor {
+
+    // Assumed duration of a test with no history yet
+    private static final long DEFAULT_DURATION_MS = 30_000;
+
+    private record Planned(IMethodInstance method, String name, long durationMs, boolean deferred) {
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!Config.getBoolean("schedule.byDuration", true) || methods.isEmpty()) {
+            return methods;
+        }
+
+        Map<String, RunHistoryStore.Stats> stats = RunHistoryStore.recentStats();
+        long fallback = (long) stats.values().stream()
+                .filter(testStats -> testStats.medianDurationMs() > 0)
+                .mapToLong(RunHistoryStore.Stats::medianDurationMs)
+                .average().orElse(DEFAULT_DURATION_MS);
+        // Keep quarantine.mode=last: quarantined tests still run after the stable ones
+        Set<String> deferred = "last".equalsIgnoreCase(Config.get("quarantine.mode", "off"))
+                ? QuarantineInterceptor.quarantinedTests() : Set.of();
+
+        List<Planned> plan = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            String name = QuarantineInterceptor.testName(method);
+            RunHistoryStore.Stats testStats = stats.get(name);
+            long duration = testStats != null && testStats.medianDurationMs() > 0 ? testStats.medianDurationMs() : fallback;
+            plan.add(new Planned(method, name, duration, deferred.contains(name)));
+        }
+        // Longest first; names break ties so every shard agent computes the same order
+        plan.sort(Comparator.comparing(Planned::deferred)
+                .thenComparing(Comparator.comparingLong(Planned::durationMs).reversed())
+                .thenComparing(Planned::name));
+
+        plan = shard(plan);
+
+        int workers = Math.max(1, context.getCurrentXmlTest().getThreadCount());
+        System.out.println("⏱️ Scheduled " + plan.size() + " test(s) longest first, expected "
+                + makespan(plan, workers) / 1000 + "s on " + workers + " worker(s) (" + total(plan) / 1000 + "s of tests)");
+
+        List<IMethodInstance> ordered = new ArrayList<>(plan.size());
+        plan.forEach(planned -> ordered.add(planned.method()));
+        return ordered;
+    }
+
+    /**
+     * Greedy LPT partition into shard.count shards, keeping the methods of shard.index in their planned order
+     */
+    private static List<Planned> shard(List<Planned> plan) {
+        int count = Config.getInt("shard.count", 1);
+        int index = Config.getInt("shard.index", 0);
+        if (count <= 1) {
+            return plan;
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (count - 1) + ", was " + index);
+        }
+
+        long[] load = new long[count];
+        List<Planned> mine = new ArrayList<>();
+        for (Planned planned : plan) {
+            int target = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (load[shard] < load[target]) {
+                    target = shard;
+                }
+            }
+            load[target] += planned.durationMs();
+            if (target == index) {
+                mine.add(planned);
+            }
+        }
+        System.out.println("🧩 Shard " + index + "/" + count + ": " + mine.size() + " of " + plan.size() + " test(s), "
+                + load[index] / 1000 + "s of expected " + total(plan) / 1000 + "s");
+        return mine;
+    }
+
+    // List-scheduling simulation: each test goes to the worker that frees up first
+    private static long makespan(List<Planned> plan, int workers) {
+        long[] busyUntil = new long[workers];
+        for (Planned planned : plan) {
+            int next = 0;
+            for (int worker = 1; worker < workers; worker++) {
+                if (busyUntil[worker] < busyUntil[next]) {
+                    next = worker;
+                }
+            }
+            busyUntil[next] += planned.durationMs();
+        }
+        long makespan = 0;
+        for (long until : busyUntil) {
+            makespan = Math.max(makespan, until);
+        }
+        return makespan;
+    }
+
+    private static long total(List<Planned> plan) {
+        return plan.stream().mapToLong(Planned::durationMs).sum();
+    }
+}
@@ -0,0 +1,108 @@
+package utilities;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.interactions.MoveTargetOutOfBoundsException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decides whether a failure is worth retrying.
+ * Browser, network and timing problems (stale elements, intercepted clicks, page-load and script timeouts, lost
+ * sessions) are TRANSIENT; everything else, in particular a plain assertion mismatch, is DETERMINISTIC and
+ * re-running it only wastes time. A wait that timed out is DETERMINISTIC (a missing or renamed element surfaces
+ * this way) unless it was caused by a session or network error. The whole cause chain is inspected, so an
+ * assertion raised because of a transient driver error is retried.
+ */
+public final class FailureClassifier {
+
+    public enum Kind {
+        TRANSIENT, DETERMINISTIC
+    }
+
+    // The browser or the connection to it failed: transient even when it surfaces as a wait timeout
+    private static final List<Class<? extends Throwable>> CONNECTION_TYPES = List.of(
+            NoSuchSessionException.class,
+            SessionNotCreatedException.class,
+            UnreachableBrowserException.class,
+            SocketException.class,
+            InterruptedIOException.class,
+            UnknownHostException.class,
+            java.util.concurrent.TimeoutException.class);
+
+    private static final List<Class<? extends Throwable>> TRANSIENT_TYPES = List.of(
+            StaleElementReferenceException.class,
+            ElementClickInterceptedException.class,
+            ElementNotInteractableException.class,
+            MoveTargetOutOfBoundsException.class,
+            ScriptTimeoutException.class,
+            NoSuchWindowException.class);
+
+    // Generic WebDriverException messages that indicate a browser or network hiccup
+    private static final List<String> TRANSIENT_MESSAGES = List.of(
+            "net::err_", "disconnected", "not reachable", "connection refused", "target frame detached",
+            "session deleted", "tab crashed");
+
+    // TimeoutException messages of page loads (driver page-load timeout, or waitForPageLoad), as opposed to
+    // element and state waits
+    private static final List<String> PAGE_LOAD_MESSAGES = List.of(
+            "timed out receiving message from renderer", "navigation timed out", "page load", "'document ready'");
+
+    private FailureClassifier() {
+    }
+
+    public static Kind classify(Throwable failure) {
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean underWaitTimeout = false;
+        for (Throwable current = failure; current != null && seen.add(current); current = current.getCause()) {
+            if (current instanceof TimeoutException && !containsAny(current, PAGE_LOAD_MESSAGES)) {
+                // Only what broke the connection makes a timed-out wait transient, not its last NoSuchElement
+                underWaitTimeout = true;
+            } else if (underWaitTimeout ? isConnectionFailure(current) : isTransientType(current)) {
+                return Kind.TRANSIENT;
+            }
+        }
+        return Kind.DETERMINISTIC;
+    }
+
+    public static boolean isTransient(Throwable failure) {
+        return classify(failure) == Kind.TRANSIENT;
+    }
+
+    private static boolean isTransientType(Throwable throwable) {
+        if (throwable instanceof TimeoutException || isConnectionFailure(throwable)) {
+            return true; // page-load timeouts; wait timeouts are handled by classify
+        }
+        return TRANSIENT_TYPES.stream().anyMatch(type -> type.isInstance(throwable));
+    }
+
+    private static boolean isConnectionFailure(Throwable throwable) {
+        if (CONNECTION_TYPES.stream().anyMatch(type -> type.isInstance(throwable))) {
+            return true;
+        }
+        return throwable.getClass() == WebDriverException.class && containsAny(throwable, TRANSIENT_MESSAGES);
+    }
+
+    private static boolean containsAny(Throwable throwable, List<String> markers) {
+        if (throwable.getMessage() == null) {
+            return false;
+        }
+        String message = throwable.getMessage().toLowerCase(Locale.ROOT);
+        return markers.stream().anyMatch(message::contains);
+    }
+}
@@ -0,0 +1,88 @@
+package utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free latency histogram in the style of HdrHistogram: values up to 127 ns are counted exactly,
+ * larger ones in log-linear buckets of 64 per power of two (under 1.6% relative error). Recording allocates
+ * nothing, so it is cheap enough to call for every timed step.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_LIMIT = 128;
+    private static final int SUB_BUCKETS = 64;
+    // Values above 2^45 ns (~9.8 hours) are clamped into the last bucket
+    private static final int MAX_MAGNITUDE = 38;
+    private static final int BUCKETS = LINEAR_LIMIT + MAX_MAGNITUDE * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        totalNanos.addAndGet(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long totalNanos() {
+        return totalNanos.get();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Value at the given percentile (0-100), as the upper bound of its bucket
+     */
+    public long percentileNanos(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    public static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        // Shift so the top 7 bits (64..127) select the sub-bucket
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - 6;
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> magnitude) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (magnitude - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int magnitude = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long top = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << magnitude) - 1;
+    }
+}
@@ -0,0 +1,41 @@
+package utilities;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * Fails a test that passed functionally when one of the application's pages it visited is over a performance
+ * budget (perf.budget.*); third-party pages such as the app stores are never enforced. Runs right after the test
+ * method, before the result listeners and @AfterMethod, while the browser is still on the last page.
+ * perf.enforce=false only reports the violations.
+ */
+public class PerformanceBudgetListener implements IInvokedMethodListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod() || !PerformanceCapture.isEnabled()) {
+            return;
+        }
+        // Final snapshot: layout shifts and long tasks caused by the test's own interactions
+        PerformanceCapture.capture("test end");
+
+        PerformanceCapture.TestPages pages = PerformanceCapture.current();
+        if (pages == null || result.getStatus() != ITestResult.SUCCESS) {
+            return;
+        }
+        List<String> violations = pages.violations(PerformanceCapture.Budgets.current());
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Performance budget exceeded: " + String.join(" | ", violations);
+        if (Config.getBoolean("perf.enforce", true)) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError(message));
+        } else {
+            System.out.println("⚠️ " + result.getMethod().getMethodName() + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Front-end performance of the pages a test visits, read from the browser's Navigation, Paint and Resource Timing
+ * APIs, with LCP, CLS and long tasks from buffered PerformanceObservers (Chromium; null where unsupported).
+ * Captured after page loads and top-level page-object actions; the latest snapshot per document is kept per test
+ * and checked against the perf.budget.* settings (0 disables a budget). Only documents of the application's own
+ * origins are budgeted; third-party pages (app stores) are reported only. Enabled by perf.capture (default true).
+ */
+public final class PerformanceCapture {
+
+    private static final Logger log = LogManager.getLogger(PerformanceCapture.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Installs the observers once per document (takeRecords() hands over the buffered entries synchronously),
+    // then summarizes the timing entries so only a small map crosses the wire
+    private static final String HARVEST_SCRIPT =
+            "var state = window.__perfCapture;"
+            + "if (!state) {"
+            + "  state = window.__perfCapture = {lcp: null, cls: null, longTasks: null, longTaskMs: 0, observers: []};"
+            + "  if (performance.setResourceTimingBufferSize) { performance.setResourceTimingBufferSize(1000); }"
+            + "  var supported = (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes) || [];"
+            + "  var observe = function (type, init, handle) {"
+            + "    if (supported.indexOf(type) < 0) { return; }"
+            + "    init();"
+            + "    var observer = new PerformanceObserver(function (list) { list.getEntries().forEach(handle); });"
+            + "    observer.observe({type: type, buffered: true});"
+            + "    state.observers.push({observer: observer, handle: handle});"
+            + "  };"
+            + "  observe('largest-contentful-paint', function () { state.lcp = 0; },"
+            + "      function (e) { state.lcp = Math.max(state.lcp, e.startTime); });"
+            + "  observe('layout-shift', function () { state.cls = 0; },"
+            + "      function (e) { if (!e.hadRecentInput) { state.cls += e.value; } });"
+            + "  observe('longtask', function () { state.longTasks = 0; },"
+            + "      function (e) { state.longTasks++; state.longTaskMs += e.duration; });"
+            + "}"
+            + "state.observers.forEach(function (o) { o.observer.takeRecords().forEach(o.handle); });"
+            + "var nav = performance.getEntriesByType('navigation')[0] || {};"
+            + "var paint = {};"
+            + "performance.getEntriesByType('paint').forEach(function (e) { paint[e.name] = e.startTime; });"
+            + "var resources = performance.getEntriesByType('resource');"
+            // Transfer up to the load event is the page's weight; later traffic (SPA polling) grows with test time
+            + "var loadEnd = nav.loadEventEnd || 0, transfer = 0, lateTransfer = 0, cached = 0;"
+            + "resources.forEach(function (r) {"
+            + "  if (!loadEnd || r.responseEnd <= loadEnd) { transfer += r.transferSize || 0; }"
+            + "  else { lateTransfer += r.transferSize || 0; }"
+            + "  if (r.transferSize === 0 && r.decodedBodySize > 0) { cached++; }"
+            + "});"
+            + "var slowest = resources.slice().sort(function (a, b) { return b.duration - a.duration; }).slice(0, 5)"
+            + "    .map(function (r) { return {name: r.name.substring(0, 200), type: r.initiatorType,"
+            + "        durationMs: r.duration, transferSize: r.transferSize || 0}; });"
+            + "return {url: nav.name || location.href, timeOrigin: performance.timeOrigin,"
+            + "    ttfbMs: nav.responseStart ? nav.responseStart - nav.startTime : null,"
+            + "    domContentLoadedMs: nav.domContentLoadedEventEnd || null, loadMs: nav.loadEventEnd || null,"
+            + "    fcpMs: paint['first-contentful-paint'] || null, lcpMs: state.lcp, cls: state.cls,"
+            + "    longTasks: state.longTasks, longTaskMs: state.longTaskMs,"
+            + "    resources: resources.length, cachedResources: cached,"
+            + "    transferBytes: (nav.transferSize || 0) + transfer, lateTransferBytes: lateTransfer,"
+            + "    slowest: slowest};";
+
+    private static final ThreadLocal<TestPages> tests = new ThreadLocal<>();
+    private static final List<TestPages> finished = new CopyOnWriteArrayList<>();
+
+    public record Resource(String name, String type, double durationMs, long transferBytes) {
+    }
+
+    /**
+     * One document as of its latest capture. Null metrics are not supported by the browser.
+     * transferBytes counts the document and resources until its load event; lateTransferBytes everything after
+     */
+    public record PageMetrics(String url, String trigger, Double ttfbMs, Double domContentLoadedMs, Double loadMs,
+                              Double fcpMs, Double lcpMs, Double cls, Integer longTasks, double longTaskMs,
+                              int resources, int cachedResources, long transferBytes, long lateTransferBytes,
+                              List<Resource> slowest) {
+    }
+
+    /**
+     * Thresholds, enforced on documents of the given origins (perf.budget.origins, default the origin of the
+     * application URL)
+     */
+    public record Budgets(double ttfbMs, double lcpMs, long transferKb, Set<String> origins) {
+
+        public static Budgets current() {
+            Set<String> origins = new LinkedHashSet<>();
+            String configured = Config.get("perf.budget.origins", "");
+            for (String url : configured.isEmpty() ? new String[]{Config.baseUrl()} : configured.split(",")) {
+                String origin = originOf(url);
+                if (origin != null) {
+                    origins.add(origin);
+                }
+            }
+            return new Budgets(Config.getDouble("perf.budget.ttfbMs", 1800), Config.getDouble("perf.budget.lcpMs", 4000),
+                    Config.getLong("perf.budget.transferKb", 10000), Set.copyOf(origins));
+        }
+
+        /**
+         * Whether the page belongs to the application under test; other pages are reported but never fail a test
+         */
+        public boolean appliesTo(PageMetrics page) {
+            String origin = originOf(page.url());
+            return origin != null && origins.contains(origin);
+        }
+
+        /**
+         * Budgets the page exceeds, as readable messages (none for pages the budgets do not apply to)
+         */
+        public List<String> violations(PageMetrics page) {
+            List<String> violations = new ArrayList<>();
+            if (!appliesTo(page)) {
+                return violations;
+            }
+            if (ttfbMs > 0 && page.ttfbMs() != null && page.ttfbMs() > ttfbMs) {
+                violations.add(String.format("TTFB %.0f ms > %.0f ms", page.ttfbMs(), ttfbMs));
+            }
+            if (lcpMs > 0 && page.lcpMs() != null && page.lcpMs() > lcpMs) {
+                violations.add(String.format("LCP %.0f ms > %.0f ms", page.lcpMs(), lcpMs));
+            }
+            if (transferKb > 0 && page.transferBytes() > transferKb * 1024) {
+                violations.add(String.format("transfer %d KB > %d KB", page.transferBytes() / 1024, transferKb));
+            }
+            return violations;
+        }
+    }
+
+    /**
+     * Documents captured during one test attempt, keyed by their time origin so SPA route changes and
+     * repeated captures update the same entry
+     */
+    public static final class TestPages {
+        private final String testName;
+        private final Map<String, PageMetrics> pages = new LinkedHashMap<>();
+
+        private TestPages(String testName) {
+            this.testName = testName;
+        }
+
+        public String testName() {
+            return testName;
+        }
+
+        public Collection<PageMetrics> pages() {
+            return pages.values();
+        }
+
+        /**
+         * "url: violation; violation" per page over budget, empty when all pages are within budget
+         */
+        public List<String> violations(Budgets budgets) {
+            List<String> violations = new ArrayList<>();
+            for (PageMetrics page : pages.values()) {
+                List<String> exceeded = budgets.violations(page);
+                if (!exceeded.isEmpty()) {
+                    violations.add(page.url() + ": " + String.join("; ", exceeded));
+                }
+            }
+            return violations;
+        }
+
+        /**
+         * Per-page table for the report
+         */
+        public String toHtml(Budgets budgets) {
+            int violations = violations(budgets).size();
+            StringBuilder html = new StringBuilder("<details><summary>Page performance (").append(pages.size())
+                    .append(pages.size() == 1 ? " page" : " pages")
+                    .append(violations > 0 ? ", " + violations + " over budget" : "").append(")</summary><pre>");
+            for (PageMetrics page : pages.values()) {
+                html.append(escape(page.url())).append("  (").append(escape(page.trigger()))
+                        .append(budgets.appliesTo(page) ? "" : ", third-party: not budgeted").append(")\n");
+                html.append(String.format("  TTFB %s  DCL %s  load %s  FCP %s  LCP %s  CLS %s  long tasks %s (%.0f ms)%n",
+                        millis(page.ttfbMs()), millis(page.domContentLoadedMs()), millis(page.loadMs()),
+                        millis(page.fcpMs()), millis(page.lcpMs()),
+                        page.cls() == null ? "n/a" : String.format("%.3f", page.cls()),
+                        page.longTasks() == null ? "n/a" : page.longTasks(), page.longTaskMs()));
+                html.append(String.format("  %d resources (%d from cache), %d KB transferred until load, %d KB after%n",
+                        page.resources(), page.cachedResources(), page.transferBytes() / 1024,
+                        page.lateTransferBytes() / 1024));
+                for (Resource resource : page.slowest()) {
+                    html.append(String.format("    %8.0f ms %8d KB  %-8s %s%n", resource.durationMs(),
+                            resource.transferBytes() / 1024, resource.type(), escape(resource.name())));
+                }
+                budgets.violations(page).forEach(v -> html.append("  ⚠️ over budget: ").append(v).append('\n'));
+            }
+            return html.append("</pre></details>").toString();
+        }
+    }
+
+    private PerformanceCapture() {
+    }
+
+    public static boolean isEnabled() {
+        return Config.getBoolean("perf.capture", true);
+    }
+
+    /**
+     * Snapshot the current document of this thread's browser. Never fails the caller: pages that cannot be read
+     * (no browser, alert open, closed window) are skipped
+     */
+    public static void capture(String trigger) {
+        WebDriver driver = DriverManager.getDriver();
+        if (!isEnabled() || !(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeScript(HARVEST_SCRIPT);
+        } catch (WebDriverException e) {
+            log.debug("Performance capture skipped (" + trigger + "): " + e.getMessage());
+            return;
+        }
+        if (!(result instanceof Map)) {
+            return;
+        }
+        Map<?, ?> harvested = (Map<?, ?>) result;
+        TestPages test = tests.get();
+        if (test == null) {
+            // Captures before onTestStart (e.g. the page load in setUp) belong to the test about to run
+            test = new TestPages(null);
+            tests.set(test);
+        }
+        test.pages.put(String.valueOf(harvested.get("timeOrigin")), toPageMetrics(harvested, trigger));
+    }
+
+    /**
+     * Start collecting for the test on this thread, keeping pages captured by its setup
+     */
+    public static void begin(String testName) {
+        TestPages previous = tests.get();
+        TestPages test = new TestPages(testName);
+        if (previous != null && previous.testName == null) {
+            test.pages.putAll(previous.pages);
+        }
+        tests.set(test);
+    }
+
+    /**
+     * Pages captured so far by the test on this thread, or null
+     */
+    public static TestPages current() {
+        return tests.get();
+    }
+
+    /**
+     * Stop collecting for this thread and return what was captured, or null if nothing was
+     */
+    public static TestPages end() {
+        TestPages test = tests.get();
+        tests.remove();
+        if (test != null && !test.pages.isEmpty()) {
+            finished.add(test);
+        }
+        return test;
+    }
+
+    public static List<TestPages> finished() {
+        return finished;
+    }
+
+    /**
+     * Suite-wide page metrics and budget results as JSON
+     */
+    public static void writeJson(Path file) throws IOException {
+        Budgets budgets = Budgets.current();
+        ObjectNode root = objectMapper.createObjectNode().put("run", RunHistoryStore.RUN_ID);
+        root.putObject("budgets")
+                .put("ttfbMs", budgets.ttfbMs())
+                .put("lcpMs", budgets.lcpMs())
+                .put("transferKb", budgets.transferKb())
+                .set("origins", objectMapper.valueToTree(budgets.origins()));
+        ArrayNode testsNode = root.putArray("tests");
+        for (TestPages test : finished) {
+            ArrayNode pagesNode = testsNode.addObject().put("test", test.testName).putArray("pages");
+            for (PageMetrics page : test.pages.values()) {
+                ObjectNode pageNode = pagesNode.addObject()
+                        .put("url", page.url())
+                        .put("trigger", page.trigger())
+                        .put("ttfbMs", page.ttfbMs())
+                        .put("domContentLoadedMs", page.domContentLoadedMs())
+                        .put("loadMs", page.loadMs())
+                        .put("fcpMs", page.fcpMs())
+                        .put("lcpMs", page.lcpMs())
+                        .put("cls", page.cls())
+                        .put("longTasks", page.longTasks())
+                        .put("longTaskMs", page.longTaskMs())
+                        .put("resources", page.resources())
+                        .put("cachedResources", page.cachedResources())
+                        .put("transferBytes", page.transferBytes())
+                        .put("lateTransferBytes", page.lateTransferBytes())
+                        .put("budgeted", budgets.appliesTo(page));
+                ArrayNode slowest = pageNode.putArray("slowestResources");
+                page.slowest().forEach(resource -> slowest.addObject()
+                        .put("name", resource.name())
+                        .put("type", resource.type())
+                        .put("durationMs", resource.durationMs())
+                        .put("transferBytes", resource.transferBytes()));
+                ArrayNode violations = pageNode.putArray("violations");
+                budgets.violations(page).forEach(violations::add);
+            }
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    private static PageMetrics toPageMetrics(Map<?, ?> harvested, String trigger) {
+        List<Resource> slowest = new ArrayList<>();
+        if (harvested.get("slowest") instanceof List) {
+            for (Object item : (List<?>) harvested.get("slowest")) {
+                Map<?, ?> resource = (Map<?, ?>) item;
+                slowest.add(new Resource(String.valueOf(resource.get("name")), String.valueOf(resource.get("type")),
+                        toDouble(resource.get("durationMs")), (long) toDouble(resource.get("transferSize"))));
+            }
+        }
+        Double longTasks = toNullableDouble(harvested.get("longTasks"));
+        return new PageMetrics(String.valueOf(harvested.get("url")), trigger,
+                toNullableDouble(harvested.get("ttfbMs")), toNullableDouble(harvested.get("domContentLoadedMs")),
+                toNullableDouble(harvested.get("loadMs")), toNullableDouble(harvested.get("fcpMs")),
+                toNullableDouble(harvested.get("lcpMs")), toNullableDouble(harvested.get("cls")),
+                longTasks == null ? null : longTasks.intValue(), toDouble(harvested.get("longTaskMs")),
+                (int) toDouble(harvested.get("resources")), (int) toDouble(harvested.get("cachedResources")),
+                (long) toDouble(harvested.get("transferBytes")), (long) toDouble(harvested.get("lateTransferBytes")),
+                List.copyOf(slowest));
+    }
+
+    // scheme://host[:port], or null for about:blank, data: URLs and unparsable values
+    private static String originOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return null;
+            }
+            return uri.getScheme().toLowerCase() + "://" + uri.getHost().toLowerCase()
+                    + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static Double toNullableDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static String millis(Double value) {
+        return value == null ? "n/a" : String.format("%.0f ms", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,72 @@
+package utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps known-flaky tests (per RunHistoryStore) off the critical path. quarantine.mode:
+ * off (default) runs everything as listed; last moves quarantined tests behind the stable ones;
+ * exclude drops them from this run; only runs just them (a separate, non-blocking CI lane).
+ */
+public class QuarantineInterceptor implements IMethodInterceptor {
+
+    private static final Logger log = LogManager.getLogger(QuarantineInterceptor.class);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        String mode = Config.get("quarantine.mode", "off").toLowerCase();
+        if ("off".equals(mode)) {
+            return methods;
+        }
+
+        Set<String> quarantined = quarantinedTests();
+        List<IMethodInstance> stable = new ArrayList<>();
+        List<IMethodInstance> flaky = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            (quarantined.contains(testName(method)) ? flaky : stable).add(method);
+        }
+        if (!flaky.isEmpty()) {
+            System.out.println("🧪 Quarantine (" + mode + "): " + flaky.stream().map(QuarantineInterceptor::testName)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        switch (mode) {
+            case "exclude":
+                return stable;
+            case "only":
+                return flaky;
+            case "last":
+                List<IMethodInstance> ordered = new ArrayList<>(stable);
+                ordered.addAll(flaky);
+                return ordered;
+            default:
+                log.warn("Unknown quarantine.mode '" + mode + "' - running all tests");
+                return methods;
+        }
+    }
+
+    /**
+     * Tests that flaked at least quarantine.minFlakes times within the history window
+     */
+    public static Set<String> quarantinedTests() {
+        int minFlakes = Math.max(1, Config.getInt("quarantine.minFlakes", 2));
+        Map<String, RunHistoryStore.Stats> stats = RunHistoryStore.recentStats();
+        return stats.values().stream()
+                .filter(testStats -> testStats.flakeCount() >= minFlakes)
+                .map(RunHistoryStore.Stats::test)
+                .collect(Collectors.toSet());
+    }
+
+    static String testName(IMethodInstance method) {
+        return method.getMethod().getRealClass().getName() + "." + method.getMethod().getMethodName();
+    }
+}
@@ -0,0 +1,108 @@
+package utilities;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What this machine can record with: FFmpeg, its H.264/MPEG-4 encoders, the x11grab device and the display.
+ * Probed once per JVM on first use (forking FFmpeg is expensive), then served from memory.
+ */
+public record RecorderCapabilities(boolean ffmpegAvailable, String ffmpegVersion, String videoEncoder,
+                                   boolean x11grabAvailable, String display, boolean xvfbAvailable) {
+
+    // Preferred encoders, best first
+    private static final List<String> ENCODERS = List.of("libx264", "libopenh264", "mpeg4");
+
+    private static final class Holder {
+        private static final RecorderCapabilities INSTANCE = probe();
+    }
+
+    public static RecorderCapabilities get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * FFmpeg output options for the selected encoder (small files, fast encoding)
+     */
+    public List<String> encoderArgs() {
+        if (videoEncoder == null) {
+            return List.of();
+        }
+        switch (videoEncoder) {
+            case "libx264":
+                return List.of("-codec:v", "libx264", "-preset", "ultrafast", "-crf", "35");
+            case "libopenh264":
+                return List.of("-codec:v", "libopenh264", "-b:v", "1M");
+            default:
+                return List.of("-codec:v", videoEncoder, "-q:v", "10");
+        }
+    }
+
+    /**
+     * Summary for the report header
+     */
+    public Map<String, String> describe() {
+        Map<String, String> info = new LinkedHashMap<>();
+        info.put("Video FFmpeg", ffmpegAvailable ? ffmpegVersion : "not available");
+        info.put("Video Encoder", videoEncoder == null ? "none" : videoEncoder);
+        info.put("Video x11grab", x11grabAvailable ? "yes" : "no");
+        info.put("Video Display", (display == null ? "none" : display) + (xvfbAvailable ? " (Xvfb available)" : ""));
+        return info;
+    }
+
+    private static RecorderCapabilities probe() {
+        long start = System.currentTimeMillis();
+        String versionOutput = run("ffmpeg", "-hide_banner", "-version");
+        boolean ffmpeg = versionOutput != null && versionOutput.startsWith("ffmpeg");
+        String version = ffmpeg ? versionOutput.lines().findFirst().orElse("").replace("ffmpeg version ", "").split(" ")[0] : null;
+
+        String encoder = null;
+        boolean x11grab = false;
+        if (ffmpeg) {
+            String encoders = run("ffmpeg", "-hide_banner", "-encoders");
+            if (encoders != null) {
+                encoder = ENCODERS.stream().filter(name -> encoders.contains(" " + name + " ")).findFirst().orElse(null);
+            }
+            String devices = run("ffmpeg", "-hide_banner", "-devices");
+            x11grab = devices != null && devices.contains("x11grab");
+        }
+
+        String display = System.getenv("DISPLAY");
+        RecorderCapabilities capabilities = new RecorderCapabilities(ffmpeg, version, encoder, x11grab,
+                display == null || display.isEmpty() ? null : display, isOnPath("Xvfb"));
+        System.out.println((ffmpeg ? "✅ " : "⚠️ ") + "Recorder capabilities probed in "
+                + (System.currentTimeMillis() - start) + " ms: " + capabilities.describe());
+        return capabilities;
+    }
+
+    private static String run(String... command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            byte[] output = process.getInputStream().readAllBytes();
+            if (!process.waitFor(5, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroyForcibly();
+                return null;
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean isOnPath(String executable) {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        for (String dir : path.split(File.pathSeparator)) {
+            if (new File(dir, executable).canExecute()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package utilities;
+
+import com.aventstack.extentreports.Status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Immutable report events, produced by listener callbacks and applied to the Extent model by ReportWriter.
+ * testId identifies the report entry per invocation: class, method and parameters plus "#" and the invocation
+ * index (e.g. "tests.NavTest.openMenu[en]#0"). A retry continues its pending invocation's key, so it logs into
+ * the same entry; a repeated invocation (invocationCount, a rerun) gets the next index and its own entry.
+ */
+sealed interface ReportEvent {
+
+    record TestCreated(String testId, String name, String author, String category) implements ReportEvent {
+    }
+
+    record LogEntry(String testId, Status status, String message) implements ReportEvent {
+    }
+
+    // The screenshot is still being encoded off-thread when the event is queued; the writer waits for it
+    record FailureEntry(String testId, String message, CompletableFuture<ScreenshotService.ReportImage> screenshot)
+            implements ReportEvent {
+    }
+
+    record ExceptionEntry(String testId, Throwable throwable) implements ReportEvent {
+    }
+
+    record SystemInfo(String key, String value) implements ReportEvent {
+    }
+
+    record Flush(CountDownLatch done) implements ReportEvent {
+    }
+}
@@ -0,0 +1,208 @@
+package utilities;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous Extent report pipeline.
+ * Listener callbacks only enqueue immutable ReportEvents (never blocking the test thread); a single background
+ * writer thread owns the ExtentReports model, applies the events in order and flushes the HTML incrementally.
+ */
+public final class ReportWriter {
+
+    private static final Logger log = LogManager.getLogger(ReportWriter.class);
+
+    private static final String REPORT_PATH = "./reports/UI_Automation_Report.html";
+    private static final long FLUSH_INTERVAL_MS = 5000;
+    private static final long SCREENSHOT_TIMEOUT_SECONDS = 30;
+
+    private static final BlockingQueue<ReportEvent> queue = new LinkedBlockingQueue<>();
+    private static volatile Thread writerThread;
+
+    // Owned by the writer thread only
+    private static ExtentReports extent;
+    private static final Map<String, ExtentTest> tests = new HashMap<>();
+    private static final Set<String> systemInfoKeys = new HashSet<>();
+    private static boolean dirty;
+    private static long lastFlushNanos = System.nanoTime();
+
+    private ReportWriter() {
+    }
+
+    public static void createTest(String testId, String name, String author, String category) {
+        enqueue(new ReportEvent.TestCreated(testId, name, author, category));
+    }
+
+    public static void log(String testId, Status status, String message) {
+        enqueue(new ReportEvent.LogEntry(testId, status, message));
+    }
+
+    /**
+     * Mark the test failed, with an optional screenshot being encoded in the background (null for none)
+     */
+    public static void fail(String testId, String message, CompletableFuture<ScreenshotService.ReportImage> screenshot) {
+        enqueue(new ReportEvent.FailureEntry(testId, message, screenshot));
+    }
+
+    public static void fail(String testId, Throwable throwable) {
+        enqueue(new ReportEvent.ExceptionEntry(testId, throwable));
+    }
+
+    /**
+     * Add an entry to the report header (the first value for a key wins)
+     */
+    public static void systemInfo(String key, String value) {
+        enqueue(new ReportEvent.SystemInfo(key, value));
+    }
+
+    /**
+     * Wait until every event enqueued so far is applied and the report is written to disk
+     */
+    public static boolean awaitFlush(Duration timeout) {
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new ReportEvent.Flush(done));
+        try {
+            return done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void enqueue(ReportEvent event) {
+        ensureStarted();
+        queue.offer(event);
+    }
+
+    private static void ensureStarted() {
+        if (writerThread == null) {
+            synchronized (ReportWriter.class) {
+                if (writerThread == null) {
+                    Thread thread = new Thread(ReportWriter::run, "extent-report-writer");
+                    thread.setDaemon(true);
+                    thread.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitFlush(Duration.ofSeconds(10)),
+                            "extent-report-final-flush"));
+                    writerThread = thread;
+                }
+            }
+        }
+    }
+
+    private static void run() {
+        extent = createExtentReports();
+        while (true) {
+            ReportEvent event;
+            try {
+                event = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                flush();
+                return;
+            }
+
+            if (event != null) {
+                try {
+                    apply(event);
+                } catch (Exception e) {
+                    log.warn("Could not apply report event " + event + ": " + e.getMessage());
+                }
+            }
+
+            // Write the HTML periodically rather than after every event; it is rewritten in full on each flush
+            if (event instanceof ReportEvent.Flush
+                    || System.nanoTime() - lastFlushNanos >= TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS)) {
+                flush();
+            }
+            if (event instanceof ReportEvent.Flush flushEvent) {
+                flushEvent.done().countDown();
+            }
+        }
+    }
+
+    private static ExtentReports createExtentReports() {
+        ExtentSparkReporter reporter = new ExtentSparkReporter(REPORT_PATH);
+        reporter.config().setDocumentTitle("Multibank Web Execution Results");
+        reporter.config().setReportName("Multibank Web Execution Results");
+        reporter.config().setTheme(Theme.DARK);
+
+        ExtentReports reports = new ExtentReports();
+        reports.attachReporter(reporter);
+        return reports;
+    }
+
+    private static void apply(ReportEvent event) {
+        if (event instanceof ReportEvent.TestCreated created) {
+            tests.computeIfAbsent(created.testId(), id -> extent.createTest(created.name())
+                    .assignAuthor(created.author())
+                    .assignCategory(created.category()));
+        } else if (event instanceof ReportEvent.LogEntry entry) {
+            testFor(entry.testId()).log(entry.status(), entry.message());
+        } else if (event instanceof ReportEvent.FailureEntry failure) {
+            ExtentTest test = testFor(failure.testId());
+            ScreenshotService.ReportImage screenshot = awaitScreenshot(failure.screenshot());
+            if (screenshot != null) {
+                // Link the stored image (paths are relative to the report) instead of inlining base64
+                test.log(Status.FAIL, failure.message() + "<br><a href='" + screenshot.imagePath() + "' target='_blank'>"
+                        + "<img src='" + screenshot.thumbnailPath() + "' loading='lazy' alt='screenshot'"
+                        + " style='max-width:320px;border:1px solid #555'></a>");
+            } else {
+                test.log(Status.FAIL, failure.message());
+            }
+        } else if (event instanceof ReportEvent.ExceptionEntry exception) {
+            testFor(exception.testId()).fail(exception.throwable());
+        } else if (event instanceof ReportEvent.SystemInfo info) {
+            if (systemInfoKeys.add(info.key())) {
+                extent.setSystemInfo(info.key(), info.value());
+            }
+        } else {
+            return;
+        }
+        dirty = true;
+    }
+
+    private static ScreenshotService.ReportImage awaitScreenshot(CompletableFuture<ScreenshotService.ReportImage> screenshot) {
+        if (screenshot == null) {
+            return null;
+        }
+        try {
+            return screenshot.get(SCREENSHOT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Screenshot not available for the report: " + e);
+            return null;
+        }
+    }
+
+    private static ExtentTest testFor(String testId) {
+        // Events for a test that was never created (e.g. a config failure) still get an entry
+        return tests.computeIfAbsent(testId, id -> extent.createTest(id.substring(id.lastIndexOf('.') + 1)));
+    }
+
+    private static void flush() {
+        lastFlushNanos = System.nanoTime();
+        if (!dirty) {
+            return;
+        }
+        try {
+            extent.flush();
+            dirty = false;
+        } catch (Exception e) {
+            log.warn("Could not write Extent report: " + e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package utilities;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
+/**
+ * Re-runs a failed test method only when its failure is transient (see FailureClassifier), up to retry.maxRetries times.
+ * retry.mode=all restores retrying every failure, retry.mode=off disables retries.
+ */
 public class RetryAnalyzer implements IRetryAnalyzer {
 
-    public static final int maxRetryCount = 2;
+    private static final Logger log = LogManager.getLogger(RetryAnalyzer.class);
+
     private int currentRetry = 0;
 
     @Override
     public boolean retry(ITestResult result) {
-        if (currentRetry < maxRetryCount) {
-            currentRetry++;
-            return true;
+        String mode = Config.get("retry.mode", "classified");
+        if ("off".equalsIgnoreCase(mode) || currentRetry >= getMaxRetryCount()) {
+            return false;
+        }
+        if (!"all".equalsIgnoreCase(mode) && !FailureClassifier.isTransient(result.getThrowable())) {
+            log.info("Not retrying " + result.getMethod().getMethodName() + ": deterministic failure ("
+                    + describe(result.getThrowable()) + ")");
+            return false;
         }
-        return false;
+        currentRetry++;
+        return true;
+    }
+
+    public static int getMaxRetryCount() {
+        return Math.max(0, Config.getInt("retry.maxRetries", 2));
     }
 
     public int getRetryCount() {
@@ -25,4 +42,8 @@ public class RetryAnalyzer implements IRetryAnalyzer {
     public void resetRetryCount() {
         this.currentRetry = 0;
     }
+
+    private static String describe(Throwable throwable) {
+        return throwable == null ? "no exception" : throwable.getClass().getSimpleName();
+    }
 }
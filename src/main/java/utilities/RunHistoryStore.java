@@ -0,0 +1,190 @@
+package utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only history of test outcomes across runs, one JSON line per finished test:
+ * {"run":"...","time":...,"test":"tests.X.method","outcome":"PASSED","attempts":2,"durationMs":12345}.
+ * The history of previous runs is read once per JVM; results of the current run are only appended.
+ * Lives next to the driver cache (~/.cache/multibank-web-ui) so CI can persist it between runs.
+ */
+public final class RunHistoryStore {
+
+    private static final Logger log = LogManager.getLogger(RunHistoryStore.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static final String RUN_ID = Instant.now().toString().replace(":", "") + "-" + ProcessHandle.current().pid();
+
+    public enum Outcome {
+        PASSED, FAILED, SKIPPED
+    }
+
+    public record Entry(String runId, long time, String test, Outcome outcome, int attempts, long durationMs) {
+
+        /**
+         * Passed, but only after a retry
+         */
+        public boolean isFlaky() {
+            return outcome == Outcome.PASSED && attempts > 1;
+        }
+    }
+
+    /**
+     * Summary of one test over the recent runs
+     */
+    public record Stats(String test, int runs, int passed, int failed, int flaky, long medianDurationMs) {
+
+        /**
+         * Flaked: passed after a retry, or both passed and failed in the window
+         */
+        public int flakeCount() {
+            return flaky + (passed > 0 ? failed : 0);
+        }
+    }
+
+    private record WindowStats(int window, Map<String, Stats> stats) {
+    }
+
+    private static final class Holder {
+        private static final List<Entry> PREVIOUS_RUNS = load();
+    }
+
+    // Previous runs never change during a run, so stats are only recomputed if history.window is changed
+    private static volatile WindowStats cachedStats;
+
+    private RunHistoryStore() {
+    }
+
+    /**
+     * Append the final outcome of a test of this run
+     */
+    public static synchronized void append(String test, Outcome outcome, int attempts, long durationMs) {
+        ObjectNode line = objectMapper.createObjectNode()
+                .put("run", RUN_ID)
+                .put("time", System.currentTimeMillis())
+                .put("test", test)
+                .put("outcome", outcome.name())
+                .put("attempts", attempts)
+                .put("durationMs", durationMs);
+        Path file = getHistoryFile();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, List.of(objectMapper.writeValueAsString(line)), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Could not append to run history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Entries of previous runs, oldest first
+     */
+    public static List<Entry> previousRuns() {
+        return Holder.PREVIOUS_RUNS;
+    }
+
+    /**
+     * Per-test statistics over the last history.window runs
+     */
+    public static Map<String, Stats> recentStats() {
+        int window = Math.max(1, Config.getInt("history.window", 10));
+        WindowStats cached = cachedStats;
+        if (cached != null && cached.window() == window) {
+            return cached.stats();
+        }
+
+        List<Entry> entries = previousRuns();
+        Set<String> runIds = new LinkedHashSet<>();
+        entries.forEach(entry -> runIds.add(entry.runId()));
+        Set<String> recentRuns = new LinkedHashSet<>(new ArrayList<>(runIds).subList(Math.max(0, runIds.size() - window), runIds.size()));
+
+        Map<String, List<Entry>> byTest = new HashMap<>();
+        for (Entry entry : entries) {
+            if (recentRuns.contains(entry.runId())) {
+                byTest.computeIfAbsent(entry.test(), test -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        Map<String, Stats> stats = new HashMap<>();
+        byTest.forEach((test, testEntries) -> {
+            int passed = 0, failed = 0, flaky = 0;
+            List<Long> durations = new ArrayList<>();
+            for (Entry entry : testEntries) {
+                switch (entry.outcome()) {
+                    case PASSED -> passed++;
+                    case FAILED -> failed++;
+                    default -> {
+                    }
+                }
+                if (entry.isFlaky()) {
+                    flaky++;
+                }
+                if (entry.outcome() != Outcome.SKIPPED) {
+                    durations.add(entry.durationMs());
+                }
+            }
+            Collections.sort(durations);
+            long median = durations.isEmpty() ? 0 : durations.get(durations.size() / 2);
+            stats.put(test, new Stats(test, testEntries.size(), passed, failed, flaky, median));
+        });
+        cachedStats = new WindowStats(window, Map.copyOf(stats));
+        return cachedStats.stats();
+    }
+
+    private static Path getHistoryFile() {
+        return Paths.get(Config.get("history.file",
+                System.getProperty("user.home") + "/.cache/multibank-web-ui/run-history.jsonl"));
+    }
+
+    private static List<Entry> load() {
+        Path file = getHistoryFile();
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    Entry entry = new Entry(node.path("run").asText(), node.path("time").asLong(),
+                            node.path("test").asText(), Outcome.valueOf(node.path("outcome").asText()),
+                            node.path("attempts").asInt(1), node.path("durationMs").asLong());
+                    if (!RUN_ID.equals(entry.runId())) {
+                        entries.add(entry);
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    // A line cut short by a killed run must not make the whole history unusable
+                    log.warn("Skipping malformed run history line: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read run history " + file + ": " + e.getMessage());
+        }
+        log.info("Loaded " + entries.size() + " run history entries from " + file);
+        return List.copyOf(entries);
+    }
+}
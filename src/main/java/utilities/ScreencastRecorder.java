@@ -0,0 +1,217 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording backend that streams frames straight from a Chromium browser with DevTools Page.startScreencast.
+ * Only the page viewport is captured, no display server or FFmpeg is needed while the test runs, and frames
+ * are kept in memory (last video.keepSeconds) and encoded only when the test fails.
+ */
+final class ScreencastRecorder {
+
+    private static final Map<String, Screencast> screencasts = new ConcurrentHashMap<>();
+
+    private record Frame(byte[] jpeg, double timestamp) {
+    }
+
+    private static final class Screencast {
+        private final String testName;
+        private final String videoPath;
+        private final DevTools devTools;
+        private final double keepSeconds;
+        private final Deque<Frame> frames = new ArrayDeque<>();
+
+        private Screencast(String testName, String videoPath, DevTools devTools, double keepSeconds) {
+            this.testName = testName;
+            this.videoPath = videoPath;
+            this.devTools = devTools;
+            this.keepSeconds = keepSeconds;
+        }
+
+        private synchronized void add(Frame frame) {
+            frames.addLast(frame);
+            // Ring buffer: drop frames older than the window we keep
+            while (frames.size() > 1 && frame.timestamp() - frames.peekFirst().timestamp() > keepSeconds) {
+                frames.removeFirst();
+            }
+        }
+
+        private synchronized List<Frame> snapshot() {
+            return new ArrayList<>(frames);
+        }
+    }
+
+    private ScreencastRecorder() {
+    }
+
+    /**
+     * Whether the driver can be recorded with a DevTools screencast
+     */
+    static boolean supports(WebDriver driver) {
+        return unwrap(driver) instanceof ChromiumDriver;
+    }
+
+    /**
+     * Start a screencast of the driver's page. Returns false if the browser refused it
+     */
+    @SuppressWarnings("unchecked")
+    static boolean start(String recordingKey, String testName, String videoPath, WebDriver driver, int keepSeconds) {
+        try {
+            DevTools devTools = ((ChromiumDriver) unwrap(driver)).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            Screencast screencast = new Screencast(testName, videoPath, devTools, keepSeconds);
+
+            devTools.addListener(new Event<>("Page.screencastFrame", input -> (Map<String, Object>) input.read(Json.MAP_TYPE)),
+                    frame -> {
+                        Map<String, Object> metadata = (Map<String, Object>) frame.get("metadata");
+                        Object timestamp = metadata == null ? null : metadata.get("timestamp");
+                        screencast.add(new Frame(Base64.getDecoder().decode((String) frame.get("data")),
+                                timestamp instanceof Number ? ((Number) timestamp).doubleValue()
+                                        : System.currentTimeMillis() / 1000.0));
+                        // The browser sends the next frame only after the previous one is acknowledged
+                        devTools.send(new Command<>("Page.screencastFrameAck", Map.of("sessionId", frame.get("sessionId")))
+                                .doesNotSendResponse());
+                    });
+            devTools.send(new Command<>("Page.startScreencast",
+                    Map.of("format", "jpeg", "quality", 60, "maxWidth", 1280, "maxHeight", 720)));
+
+            Screencast previous = screencasts.put(recordingKey, screencast);
+            if (previous != null) {
+                stopStreaming(previous);
+            }
+            System.out.println("🎥 Screencast recording started for: " + testName);
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Failed to start screencast: " + e.getMessage());
+            return false;
+        }
+    }
+
+    static boolean isRecording(String recordingKey) {
+        return recordingKey != null && screencasts.containsKey(recordingKey);
+    }
+
+    static boolean isRecording() {
+        return !screencasts.isEmpty();
+    }
+
+    /**
+     * Stop the screencast. With keep the buffered frames are encoded and the video path returned
+     */
+    static String stop(String recordingKey, boolean keep) {
+        Screencast screencast = screencasts.remove(recordingKey);
+        if (screencast == null) {
+            return null;
+        }
+        stopStreaming(screencast);
+        List<Frame> frames = screencast.snapshot();
+        System.out.println("🛑 Screencast stopped for: " + screencast.testName + " (" + frames.size() + " frames buffered)");
+        if (!keep || frames.isEmpty()) {
+            return null;
+        }
+        try {
+            return encode(frames, screencast.videoPath);
+        } catch (Exception e) {
+            System.err.println("❌ Failed to encode screencast: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static void stopAll() {
+        for (String key : new ArrayList<>(screencasts.keySet())) {
+            stop(key, false);
+        }
+    }
+
+    private static void stopStreaming(Screencast screencast) {
+        try {
+            screencast.devTools.send(new Command<>("Page.stopScreencast", Map.of()));
+        } catch (Exception e) {
+            // Browser already gone
+        } finally {
+            screencast.devTools.clearListeners();
+        }
+    }
+
+    /**
+     * Write the frames and encode them with FFmpeg, keeping each frame's real on-screen duration.
+     * Without FFmpeg the JPEG frames themselves are kept
+     */
+    private static String encode(List<Frame> frames, String videoPath) throws Exception {
+        File video = new File(videoPath);
+        Path frameDir = new File(video.getParentFile(), video.getName().replace(".mp4", "") + "_frames").toPath();
+        Files.createDirectories(frameDir);
+
+        List<String> concatList = new ArrayList<>();
+        for (int i = 0; i < frames.size(); i++) {
+            Path framePath = frameDir.resolve(String.format("frame_%05d.jpg", i));
+            Files.write(framePath, frames.get(i).jpeg());
+            double duration = i + 1 < frames.size() ? frames.get(i + 1).timestamp() - frames.get(i).timestamp() : 0.1;
+            concatList.add("file '" + framePath.getFileName() + "'");
+            concatList.add("duration " + Math.max(0.001, duration));
+        }
+        // The concat demuxer ignores the duration of the last entry unless the file is repeated
+        concatList.add(concatList.get(concatList.size() - 2));
+
+        if (!VideoRecorder.isFFmpegAvailable()) {
+            System.out.println("💾 FFmpeg not available - screencast frames saved: " + frameDir);
+            return frameDir.toString();
+        }
+
+        Path listFile = frameDir.resolve("frames.txt");
+        Files.write(listFile, concatList, StandardCharsets.UTF_8);
+        List<String> command = new ArrayList<>(List.of("ffmpeg", "-f", "concat", "-safe", "0",
+                "-i", listFile.toString(), "-vsync", "vfr", "-vf", "scale=trunc(iw/2)*2:trunc(ih/2)*2",
+                "-pix_fmt", "yuv420p"));
+        command.addAll(RecorderCapabilities.get().encoderArgs());
+        command.addAll(List.of("-y", video.getAbsolutePath()));
+        Process ffmpeg = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        boolean finished = ffmpeg.waitFor(60, TimeUnit.SECONDS);
+        if (!finished) {
+            ffmpeg.destroyForcibly();
+        }
+
+        if (finished && video.length() > 0) {
+            File[] files = frameDir.toFile().listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            frameDir.toFile().delete();
+            System.out.println("💾 Screencast saved: " + video.getAbsolutePath());
+            return video.getAbsolutePath();
+        }
+        System.err.println("❌ Screencast encoding failed - frames kept in " + frameDir);
+        return frameDir.toString();
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver;
+    }
+}
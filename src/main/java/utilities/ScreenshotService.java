@@ -0,0 +1,149 @@
+package utilities;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Failure screenshots: the PNG is captured from the browser once, on the test thread; writing the file and
+ * building the (downscaled, compressed) report image and its thumbnail happen from that same buffer on a
+ * background executor. Report images go to the ArtifactStore and are linked, not inlined, from the report.
+ */
+public final class ScreenshotService {
+
+    private static final int THUMBNAIL_WIDTH = 320;
+
+    /**
+     * Report image and thumbnail, as paths relative to the report directory
+     */
+    public record ReportImage(String imagePath, String thumbnailPath) {
+    }
+
+    private static final ExecutorService encoder = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScreenshotService() {
+    }
+
+    /**
+     * Capture the browser and process it off-thread. The future yields the stored report image
+     * (null if processing failed); this method returns null if nothing could be captured
+     */
+    public static CompletableFuture<ReportImage> capture(WebDriver driver, String testName) {
+        if (driver == null) {
+            System.err.println("Driver is null - cannot capture screenshot for: " + testName);
+            return null;
+        }
+
+        byte[] png;
+        try {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            System.err.println("Failed to capture screenshot for " + testName + ": " + e.getMessage());
+            return null;
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            saveToFile(png, testName);
+            try {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+                if (image == null) {
+                    return null;
+                }
+                String format = Config.get("screenshot.format", "jpeg").toLowerCase();
+                byte[] reportImage = encode(image, Config.getInt("screenshot.maxWidth", 1280), format,
+                        (float) Config.getDouble("screenshot.jpegQuality", 0.7));
+                byte[] thumbnail = encode(image, THUMBNAIL_WIDTH, "jpeg", 0.6f);
+                return new ReportImage(ArtifactStore.store(reportImage, "png".equals(format) ? "png" : "jpg"),
+                        ArtifactStore.store(thumbnail, "jpg"));
+            } catch (Exception e) {
+                System.err.println("Failed to encode screenshot for " + testName + ": " + e.getMessage());
+                return null;
+            }
+        }, encoder);
+    }
+
+    /**
+     * Save the original PNG using pipeline-friendly directory structure
+     */
+    private static void saveToFile(byte[] png, String testName) {
+        try {
+            String screenshotBaseDir = Config.get("screenshot.dir", "./reports/screenshots");
+            File screenshotDir = new File(screenshotBaseDir);
+
+            // Don't create timestamp subdirectories - pipeline expects flat structure
+            if (!screenshotDir.exists()) {
+                boolean created = screenshotDir.mkdirs();
+                System.out.println("📂 Created screenshot directory: " + screenshotDir.getAbsolutePath() + " (success: " + created + ")");
+            }
+
+            // Include timestamp in filename instead of directory
+            String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").format(LocalDateTime.now());
+            File destFile = new File(screenshotDir, testName + "_" + timestamp + ".png");
+            Files.write(destFile.toPath(), png);
+
+            System.out.println("📸 Screenshot saved: " + destFile.getAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("Failed to save screenshot file for " + testName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Downscale to maxWidth (0 = keep size) and encode as JPEG or PNG
+     */
+    static byte[] encode(BufferedImage image, int maxWidth, String format, float jpegQuality) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (maxWidth > 0 && width > maxWidth) {
+            height = Math.max(1, (int) Math.round(height * (double) maxWidth / width));
+            width = maxWidth;
+        }
+
+        // JPEG has no alpha channel, so always draw onto an RGB canvas
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("png".equals(format)) {
+            ImageIO.write(scaled, "png", out);
+            return out.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,107 @@
+package utilities;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.Origin;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.SuperCall;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isPublic;
+import static net.bytebuddy.matcher.ElementMatchers.isStatic;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * Creates page objects whose public methods are timed by StepTimer, without touching the page-object code:
+ * a Byte Buddy subclass wraps every public instance method (inherited Base helpers such as waitForVisibility
+ * included) in a step named "DeclaringClass.method". The subclass is generated once per page-object class.
+ */
+public final class StepProxy {
+
+    private static final Map<Class<?>, Class<?>> subclasses = new ConcurrentHashMap<>();
+
+    private StepProxy() {
+    }
+
+    /**
+     * A new instance of the page object, timed when timing.steps is enabled (default) or plain otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T create(Class<T> type) {
+        try {
+            Class<? extends T> actual = Config.getBoolean("timing.steps", true)
+                    ? (Class<? extends T>) subclasses.computeIfAbsent(type, StepProxy::generate)
+                    : type;
+            return actual.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create " + type.getSimpleName(), e);
+        }
+    }
+
+    private static Class<?> generate(Class<?> type) {
+        MethodHandles.Lookup lookup;
+        try {
+            // Define the subclass next to the page object, as if it were declared in the same package
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot generate a timed subclass of " + type.getName(), e);
+        }
+        return new ByteBuddy()
+                .subclass(type)
+                .name(type.getName() + "$Timed")
+                .method(isPublic().and(not(isStatic())).and(not(isDeclaredBy(Object.class))))
+                .intercept(MethodDelegation.to(StepInterceptor.class))
+                .make()
+                .load(type.getClassLoader(), ClassLoadingStrategy.UsingLookup.of(lookup))
+                .getLoaded();
+    }
+
+    /**
+     * Byte Buddy delegate; public so the generated subclass can call it
+     */
+    public static final class StepInterceptor {
+
+        // Nesting of intercepted calls on this thread; 1 is an action called by the test itself
+        private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+        // Methods that act on the page; reads (get*, is*, validate*, ...) leave nothing new to measure
+        private static final List<String> INTERACTION_PREFIXES =
+                List.of("click", "hover", "scroll", "open", "close", "switch", "press", "select");
+        private static final Map<Method, Boolean> interactions = new ConcurrentHashMap<>();
+
+        private StepInterceptor() {
+        }
+
+        @RuntimeType
+        public static Object intercept(@Origin Method method, @SuperCall Callable<?> original) throws Exception {
+            String step = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            int[] level = depth.get();
+            level[0]++;
+            StepTimer.start(step);
+            Object result;
+            try {
+                result = original.call();
+            } finally {
+                StepTimer.stop();
+                level[0]--;
+            }
+            // Page metrics after each interaction the test performs (layout shifts, long tasks, new documents)
+            if (level[0] == 0 && isInteraction(method) && Config.getBoolean("perf.captureAfterActions", true)) {
+                PerformanceCapture.capture("after " + step);
+            }
+            return result;
+        }
+
+        private static boolean isInteraction(Method method) {
+            return interactions.computeIfAbsent(method,
+                    m -> INTERACTION_PREFIXES.stream().anyMatch(m.getName()::startsWith));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package utilities;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nanosecond timing of test steps (page-object actions and waits), per thread and therefore per test.
+ * Steps nest: a step started inside another is recorded under its call path, which gives a flame-graph style
+ * breakdown (folded stacks with total and self time). Every step is also added to a suite-wide histogram
+ * per step name for percentiles.
+ */
+public final class StepTimer {
+
+    private static final ThreadLocal<Profile> profiles = new ThreadLocal<>();
+    private static final ConcurrentMap<String, LatencyHistogram> aggregate = new ConcurrentHashMap<>();
+
+    private static final class Frame {
+        private final String path;
+        private final String name;
+        private final long startNanos;
+        private long childNanos;
+
+        private Frame(String path, String name, long startNanos) {
+            this.path = path;
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Timings of one call path within a test
+     */
+    public record PathTiming(String path, int calls, long totalNanos, long selfNanos) {
+    }
+
+    /**
+     * Step timings of one test attempt
+     */
+    public static final class Profile {
+        private final String testName;
+        private final long startNanos = System.nanoTime();
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private final Map<String, long[]> paths = new LinkedHashMap<>();
+        private long elapsedNanos;
+
+        private Profile(String testName) {
+            this.testName = testName;
+        }
+
+        public String testName() {
+            return testName;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Call paths ("HomePage.clickSpotCategory;wait:category clickable"), slowest total first
+         */
+        public List<PathTiming> paths() {
+            List<PathTiming> timings = new ArrayList<>();
+            paths.forEach((path, t) -> timings.add(new PathTiming(path, (int) t[0], t[1], t[2])));
+            timings.sort(Comparator.comparingLong(PathTiming::totalNanos).reversed());
+            return timings;
+        }
+
+        /**
+         * Folded-stack lines ("path selfMicros"), the input format of flamegraph.pl and speedscope
+         */
+        public List<String> folded() {
+            List<String> lines = new ArrayList<>();
+            paths.forEach((path, t) -> lines.add(testName + ";" + path + " " + TimeUnit.NANOSECONDS.toMicros(t[2])));
+            return lines;
+        }
+
+        /**
+         * Indented breakdown for the report
+         */
+        public String toHtml(int maxRows) {
+            StringBuilder html = new StringBuilder("<details><summary>Step timings (")
+                    .append(String.format("%.0f", LatencyHistogram.toMillis(elapsedNanos)))
+                    .append(" ms total)</summary><pre>");
+            html.append(String.format("%10s %10s %6s  %s%n", "total ms", "self ms", "calls", "step"));
+            List<PathTiming> rows = new ArrayList<>(paths());
+            rows.sort(Comparator.comparing(PathTiming::path));
+            int shown = 0;
+            for (PathTiming row : rows) {
+                if (shown++ >= maxRows) {
+                    html.append("... ").append(rows.size() - maxRows).append(" more\n");
+                    break;
+                }
+                int depth = row.path().split(";").length - 1;
+                String name = row.path().substring(row.path().lastIndexOf(';') + 1);
+                html.append(String.format("%10.1f %10.1f %6d  %s%s%n", LatencyHistogram.toMillis(row.totalNanos()),
+                        LatencyHistogram.toMillis(row.selfNanos()), row.calls(), "  ".repeat(depth), escape(name)));
+            }
+            return html.append("</pre></details>").toString();
+        }
+    }
+
+    private StepTimer() {
+    }
+
+    /**
+     * Start collecting steps for the test running on this thread (discarding anything left over)
+     */
+    public static void begin(String testName) {
+        profiles.set(new Profile(testName));
+    }
+
+    /**
+     * Stop collecting for this thread and return what was recorded, or null if nothing was begun
+     */
+    public static Profile end() {
+        Profile profile = profiles.get();
+        profiles.remove();
+        if (profile != null) {
+            long now = System.nanoTime();
+            while (!profile.stack.isEmpty()) {
+                close(profile, now); // steps still open, e.g. after an exception escaped a proxy
+            }
+            profile.elapsedNanos = now - profile.startNanos;
+        }
+        return profile;
+    }
+
+    /**
+     * Open a step. Must be paired with stop() in a finally block
+     */
+    public static void start(String name) {
+        Profile profile = profiles.get();
+        if (profile == null) {
+            return;
+        }
+        Frame parent = profile.stack.peek();
+        String path = parent == null ? name : parent.path + ";" + name;
+        profile.stack.push(new Frame(path, name, System.nanoTime()));
+    }
+
+    public static void stop() {
+        Profile profile = profiles.get();
+        if (profile != null && !profile.stack.isEmpty()) {
+            close(profile, System.nanoTime());
+        }
+    }
+
+    /**
+     * Call path of the innermost open step on this thread, or null outside any step
+     */
+    public static String currentPath() {
+        Profile profile = profiles.get();
+        Frame frame = profile == null ? null : profile.stack.peek();
+        return frame == null ? null : frame.path;
+    }
+
+    /**
+     * Suite-wide histograms per step name
+     */
+    public static Map<String, LatencyHistogram> aggregate() {
+        return aggregate;
+    }
+
+    /**
+     * Suite-wide percentiles per step, slowest total first, for the report
+     */
+    public static String aggregateHtml() {
+        StringBuilder html = new StringBuilder("<pre>");
+        html.append(String.format("%8s %10s %10s %10s %10s %10s  %s%n", "calls", "p50 ms", "p90 ms", "p99 ms",
+                "max ms", "total ms", "step"));
+        aggregate.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().totalNanos()).reversed())
+                .forEach(e -> {
+                    LatencyHistogram h = e.getValue();
+                    html.append(String.format("%8d %10.1f %10.1f %10.1f %10.1f %10.0f  %s%n", h.count(),
+                            LatencyHistogram.toMillis(h.percentileNanos(50)), LatencyHistogram.toMillis(h.percentileNanos(90)),
+                            LatencyHistogram.toMillis(h.percentileNanos(99)), LatencyHistogram.toMillis(h.maxNanos()),
+                            LatencyHistogram.toMillis(h.totalNanos()), escape(e.getKey())));
+                });
+        return html.append("</pre>").toString();
+    }
+
+    private static void close(Profile profile, long now) {
+        Frame frame = profile.stack.pop();
+        long elapsed = now - frame.startNanos;
+        Frame parent = profile.stack.peek();
+        if (parent != null) {
+            parent.childNanos += elapsed;
+        }
+        long[] timing = profile.paths.computeIfAbsent(frame.path, p -> new long[3]);
+        timing[0]++;
+        timing[1] += elapsed;
+        timing[2] += elapsed - frame.childNanos;
+        aggregate.computeIfAbsent(frame.name, n -> new LatencyHistogram()).record(elapsed);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
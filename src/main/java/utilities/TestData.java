@@ -0,0 +1,207 @@
+package utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, typed view of a test data file (expected_texts.json by default).
+ * Each file is parsed once per JVM and shared by every TestDataProvider; all lists are precomputed and
+ * unmodifiable, so concurrent readers need no locking.
+ */
+public final class TestData {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestData.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<String, TestData> cache = new ConcurrentHashMap<>();
+
+    public record Navigation(List<String> mainMenuItems, Map<String, List<String>> dropdowns) {
+
+        /**
+         * Dropdown items by menu name ("About Us", "aboutUs" and "aboutus" all match); empty if unknown
+         */
+        public List<String> dropdownItems(String menuName) {
+            return dropdowns.getOrDefault(normalize(menuName), List.of());
+        }
+    }
+
+    public record Spot(List<String> categories, List<String> tradingPairColumns) {
+    }
+
+    public record Footer(List<String> marketingBanners, List<String> sections) {
+    }
+
+    public record StoreListing(String urlPattern, String titleContains, String exactTitle) {
+
+        public Map<String, String> asMap() {
+            return Map.of("urlPattern", urlPattern, "titleContains", titleContains, "exactTitle", exactTitle);
+        }
+    }
+
+    public record WhyMultiLink(String pageTitle, List<String> sections, List<String> components) {
+    }
+
+    private final String fileName;
+    private final JsonNode root;
+    private final Navigation navigation;
+    private final Spot spot;
+    private final Footer footer;
+    private final StoreListing appStore;
+    private final StoreListing googlePlay;
+    private final WhyMultiLink whyMultiLink;
+    // Generic path lookups are resolved once and then served from here
+    private final Map<String, List<String>> lists = new ConcurrentHashMap<>();
+
+    private TestData(String fileName, JsonNode root) {
+        this.fileName = fileName;
+        this.root = root;
+
+        JsonNode nav = root.path("navigation");
+        Map<String, List<String>> dropdowns = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = nav.path("dropdowns").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            dropdowns.put(normalize(field.getKey()), textList(field.getValue()));
+        }
+        this.navigation = new Navigation(textList(nav.path("mainMenuItems")), Map.copyOf(dropdowns));
+
+        JsonNode spotNode = root.path("spot");
+        this.spot = new Spot(textList(spotNode.path("categories")), textList(spotNode.path("tradingPairColumns")));
+
+        JsonNode footerNode = root.path("footer");
+        this.footer = new Footer(textList(footerNode.path("marketingBanners")), textList(footerNode.path("sections")));
+
+        JsonNode apps = root.path("appDownload");
+        this.appStore = storeListing(apps.path("appStore"), "apps.apple.com", "MultiBank Group on the App Store");
+        this.googlePlay = storeListing(apps.path("googlePlay"), "play.google.com", "MultiBank Group - Apps on Google Play");
+
+        JsonNode why = root.path("whyMultiLink");
+        this.whyMultiLink = new WhyMultiLink(why.path("pageTitle").asText(""), textList(why.path("sections")),
+                textList(why.path("components")));
+    }
+
+    /**
+     * The shared model for a data file, parsed on first use
+     */
+    public static TestData get(String fileName) {
+        return cache.computeIfAbsent(fileName, TestData::parse);
+    }
+
+    /**
+     * Re-parse a data file and replace the shared model (readers holding the old one are unaffected)
+     */
+    public static TestData reload(String fileName) {
+        TestData data = parse(fileName);
+        cache.put(fileName, data);
+        return data;
+    }
+
+    public Navigation navigation() {
+        return navigation;
+    }
+
+    public Spot spot() {
+        return spot;
+    }
+
+    public Footer footer() {
+        return footer;
+    }
+
+    public StoreListing appStore() {
+        return appStore;
+    }
+
+    public StoreListing googlePlay() {
+        return googlePlay;
+    }
+
+    public WhyMultiLink whyMultiLink() {
+        return whyMultiLink;
+    }
+
+    /**
+     * Text at a dotted path, or "" if missing
+     */
+    public String value(String path) {
+        JsonNode node = resolve(path);
+        return node == null ? "" : node.asText("");
+    }
+
+    /**
+     * Unmodifiable list at a dotted path, or an empty list if missing
+     */
+    public List<String> list(String path) {
+        return lists.computeIfAbsent(path, p -> {
+            JsonNode node = resolve(p);
+            return node == null ? List.of() : textList(node);
+        });
+    }
+
+    private JsonNode resolve(String path) {
+        JsonNode current = root;
+        for (String part : path.split("\\.")) {
+            current = current.path(part);
+            if (current.isMissingNode()) {
+                logger.warn("Path not found in test data " + fileName + ": " + path);
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static TestData parse(String fileName) {
+        try (InputStream inputStream = TestData.class.getClassLoader().getResourceAsStream(fileName)) {
+            // Try to load from resources folder first
+            if (inputStream != null) {
+                TestData data = new TestData(fileName, objectMapper.readTree(inputStream));
+                logger.info("Successfully loaded test data from resources: " + fileName);
+                return data;
+            }
+            // Try to load from file system
+            File file = new File("src/test/resources/" + fileName);
+            if (file.exists()) {
+                TestData data = new TestData(fileName, objectMapper.readTree(file));
+                logger.info("Successfully loaded test data from file: " + file.getPath());
+                return data;
+            }
+            logger.error("Test data file not found: " + fileName);
+            throw new RuntimeException("Could not find test data file: " + fileName);
+        } catch (IOException e) {
+            logger.error("Error loading test data file: " + fileName, e);
+            throw new RuntimeException("Failed to load test data", e);
+        }
+    }
+
+    private static StoreListing storeListing(JsonNode node, String urlPattern, String exactTitle) {
+        return new StoreListing(node.path("urlPattern").asText(urlPattern),
+                node.path("titleContains").asText("MultiBank"),
+                node.path("exactTitle").asText(exactTitle));
+    }
+
+    private static List<String> textList(JsonNode node) {
+        if (!node.isArray()) {
+            return List.of();
+        }
+        List<String> items = new ArrayList<>(node.size());
+        for (JsonNode item : node) {
+            items.add(item.asText());
+        }
+        return List.copyOf(items);
+    }
+
+    static String normalize(String name) {
+        return name.toLowerCase().replace(" ", "");
+    }
+}
@@ -1,49 +1,47 @@
 package utilities;
 
-import com.aventstack.extentreports.*;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
-import com.aventstack.extentreports.reporter.configuration.Theme;
-import com.aventstack.extentreports.MediaEntityBuilder;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import com.aventstack.extentreports.Status;
 import org.testng.*;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.*;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
 
 public class TestListener extends CommonActions implements ITestListener {
 
-    private static ExtentReports extent;
-    private static ExtentSparkReporter reporter;
-    private static final Map<String, ExtentTest> extentTestMap = new HashMap<>();
-    private static final Map<String, ITestResult> finalResults = new HashMap<>();
-    private static final Map<String, Integer> retryTracker = new HashMap<>();
-    private static final Map<String, String> displayNames = new HashMap<>();
-    private static final Map<String, Boolean> testCompleted = new HashMap<>();
-    private static final Map<String, Boolean> videoRecordingStarted = new HashMap<>();
+    // One immutable record per test invocation, replaced atomically on every state transition
+    private static final ConcurrentMap<String, TestRecord> testRecords = new ConcurrentHashMap<>();
+    private static final String RECORD_KEY_ATTRIBUTE = "testRecordKey";
+    private static final String STEP_TIMINGS_PATH = "./reports/step_timings.folded";
+    private static final String COMMAND_METRICS_PATH = "./reports/webdriver_commands.json";
+    private static final String PAGE_PERFORMANCE_PATH = "./reports/page_performance.json";
+
+    // Folded call stacks of every test attempt, written for flame graphs at the end of the run
+    private static final Queue<String> foldedStepTimings = new ConcurrentLinkedQueue<>();
 
 
     @Override
     public void onStart(ITestContext context) {
-        if (extent == null) {
-            reporter = new ExtentSparkReporter("./reports/UI_Automation_Report.html");
-            reporter.config().setDocumentTitle("Multibank Web Execution Results");
-            reporter.config().setReportName("Multibank Web Execution Results");
-            reporter.config().setTheme(Theme.DARK);
-
-            extent = new ExtentReports();
-            extent.attachReporter(reporter);
-        }
-
         System.out.println("🔹 Test execution started");
         // Check if video recording is available
         if (isPipelineEnvironment()) {
             System.out.println("📹 Pipeline environment detected - video recording will be enabled for failed tests");
+            // Probed once per JVM; shown in the report header
+            RecorderCapabilities.get().describe().forEach(ReportWriter::systemInfo);
         } else {
             System.out.println("💻 Local environment detected - video recording disabled");
         }
@@ -52,158 +50,125 @@ public class TestListener extends CommonActions implements ITestListener {
 
     @Override
     public void onTestStart(ITestResult result) {
-        String uniqueName = getUniqueTestName(result);
-        String methodOnlyName = result.getMethod().getMethodName();
-        displayNames.put(uniqueName, methodOnlyName);
-
-        if (!extentTestMap.containsKey(uniqueName)) {
-            ExtentTest test = extent.createTest(methodOnlyName).assignAuthor("Abdelazeem").assignCategory("REGRESSION");
-            extentTestMap.put(uniqueName, test);
-            test.log(Status.INFO, "Test started: " + methodOnlyName);
-
-            // Start video recording for this test (pipeline only)
-            if (isPipelineEnvironment()) {
-                VideoRecorder.startRecording(methodOnlyName);
-                videoRecordingStarted.put(uniqueName, true);
-            }
+        TestRecord record = claimRecord(result);
+        String key = record.key();
+        String methodOnlyName = record.displayName();
+        StepTimer.begin(methodOnlyName);
+        CommandMetrics.begin(methodOnlyName);
+        PerformanceCapture.begin(methodOnlyName);
+
+        if (record.attempts() == 1) {
+            boolean quarantined = QuarantineInterceptor.quarantinedTests().contains(getTestName(result));
+            ReportWriter.createTest(key, methodOnlyName, "Abdelazeem", quarantined ? "QUARANTINE" : "REGRESSION");
+            ReportWriter.log(key, Status.INFO, "Test started: " + methodOnlyName);
         } else {
-            ExtentTest test = extentTestMap.get(uniqueName);
-            test.log(Status.INFO, "Retrying test: " + methodOnlyName);
+            ReportWriter.log(key, Status.INFO, "Retrying test: " + methodOnlyName);
+        }
 
-            // Start recording for retry if not already started
-            if (isPipelineEnvironment() && !videoRecordingStarted.getOrDefault(uniqueName, false)) {
-                VideoRecorder.startRecording(methodOnlyName);
-                videoRecordingStarted.put(uniqueName, true);
-            }
+        // Start video recording for this test (pipeline only), unless still recording from a previous attempt
+        if (isPipelineEnvironment() && !record.recording()) {
+            VideoRecorder.startRecording(key, methodOnlyName);
+            update(key, r -> r.withRecording(true));
         }
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        String uniqueName = getUniqueTestName(result);
-        String methodName = displayNames.getOrDefault(uniqueName, result.getMethod().getMethodName());
-        ExtentTest test = extentTestMap.get(uniqueName);
-        int retryCount = getRetryCount(result);
+        TestRecord record = recordFor(result);
+        String key = record.key();
+        String methodName = record.displayName();
+        int retryCount = record.retries();
+        reportTimings(key);
 
-        // Mark test as completed successfully
-        testCompleted.put(uniqueName, true);
-
-        if (test != null) {
-            test.log(Status.PASS, methodName + " passed" + (retryCount > 0 ? " after " + retryCount + " retry attempt(s)." : " successfully."));
-        }
+        ReportWriter.log(key, Status.PASS, methodName + " passed" + (retryCount > 0 ? " after " + retryCount + " retry attempt(s)." : " successfully."));
 
         // Stop recording and delete the video since test passed
-        if (videoRecordingStarted.getOrDefault(uniqueName, false)) {
-            VideoRecorder.stopRecording();
-            VideoRecorder.deleteRecording();
-            videoRecordingStarted.put(uniqueName, false);
+        if (record.recording()) {
+            VideoRecorder.stopRecording(key, false);
         }
 
-        finalResults.put(uniqueName, result);
-        retryTracker.put(uniqueName, retryCount);
+        update(key, r -> r.finished(TestRecord.State.PASSED, ITestResult.SUCCESS).withRecording(false));
+        recordHistory(result, record, RunHistoryStore.Outcome.PASSED);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        String uniqueName = getUniqueTestName(result);
-        String methodName = displayNames.getOrDefault(uniqueName, result.getMethod().getMethodName());
-        ExtentTest test = extentTestMap.get(uniqueName);
-        int retryCount = getRetryCount(result);
-
-        // Check if this is the final failure (no more retries available)
-        Object retryAnalyzer = result.getMethod().getRetryAnalyzer(result);
-        boolean isFinalFailure = true;
-        if (retryAnalyzer instanceof RetryAnalyzer) {
-            RetryAnalyzer analyzer = (RetryAnalyzer) retryAnalyzer;
-            isFinalFailure = analyzer.getRetryCount() >= RetryAnalyzer.maxRetryCount;
-        }
+        TestRecord record = recordFor(result);
+        String key = record.key();
+        String methodName = record.displayName();
+        int retryCount = record.retries();
+        reportTimings(key);
+
+        // TestNG reports a failure that will be retried as a skip; guard anyway in case it is reported here
+        boolean isFinalFailure = !result.wasRetried();
 
-        if (test != null) {
-            if (isFinalFailure) {
-                // Stop and save video recording for failed test
-                if (videoRecordingStarted.getOrDefault(uniqueName, false)) {
-                    VideoRecorder.stopRecording();
-                    videoRecordingStarted.put(uniqueName, false);
-
-                    // Get video path and add to report
-                    String videoPath = VideoRecorder.getVideoPath();
-                    if (videoPath != null) {
-                        File videoFile = new File(videoPath);
-                        if (videoFile.exists()) {
-                            test.log(Status.INFO, "🎥 Video recording saved: " + videoFile.getName());
-                        }
+        if (isFinalFailure) {
+            // Stop and save video recording for failed test
+            if (record.recording()) {
+                // Get video path and add to report
+                String videoPath = VideoRecorder.stopRecording(key, true);
+                if (videoPath != null) {
+                    File videoFile = new File(videoPath);
+                    if (videoFile.exists()) {
+                        ReportWriter.log(key, Status.INFO, "🎥 Video recording saved: " + videoFile.getName());
                     }
                 }
+            }
 
-                // Capture screenshot for final failures
-                String base64Screenshot = captureScreenshotAsBase64(result, methodName);
-
-                if (base64Screenshot != null) {
-                    test.fail(methodName + " failed after " + retryCount + " retry attempt(s).",
-                            MediaEntityBuilder.createScreenCaptureFromBase64String(base64Screenshot).build());
-                } else {
-                    test.log(Status.FAIL, methodName + " failed after " + retryCount + " retry attempt(s).");
-                }
+            // Capture screenshot for final failures
+            // Captured once here; file and report attachment are produced in the background
+            CompletableFuture<ScreenshotService.ReportImage> screenshot = ScreenshotService.capture(getDriver(), methodName);
+            ReportWriter.fail(key, methodName + " failed after " + retryCount + " retry attempt(s).", screenshot);
+            if (!FailureClassifier.isTransient(result.getThrowable())) {
+                ReportWriter.log(key, Status.INFO, "Deterministic failure - not retried");
+            }
 
-                // Log the exception if available
-                if (result.getThrowable() != null) {
-                    test.fail(result.getThrowable());
-                }
-            } else {
-                // Just log the retry attempt without stopping the recording
-                test.log(Status.INFO, methodName + " failed (attempt " + (retryCount + 1) + "), will retry...");
+            // Log the exception if available
+            if (result.getThrowable() != null) {
+                ReportWriter.fail(key, result.getThrowable());
             }
-        }
 
-        // Only store as final result if this is the final failure
-        if (isFinalFailure) {
-            finalResults.put(uniqueName, result);
-            retryTracker.put(uniqueName, retryCount);
+            update(key, r -> r.finished(TestRecord.State.FAILED, ITestResult.FAILURE).withRecording(false));
+            recordHistory(result, record, RunHistoryStore.Outcome.FAILED);
+        } else {
+            // Just log the retry attempt without stopping the recording
+            ReportWriter.log(key, Status.INFO, methodName + " failed (attempt " + (retryCount + 1) + "), will retry...");
+            update(key, TestRecord::retryPending);
         }
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        String uniqueName = getUniqueTestName(result);
-        String methodName = displayNames.getOrDefault(uniqueName, result.getMethod().getMethodName());
+        TestRecord record = recordFor(result);
+        String key = record.key();
+        String methodName = record.displayName();
+        reportTimings(key);
 
         // Check if this test was already completed successfully
-        if (testCompleted.getOrDefault(uniqueName, false)) {
+        if (record.state() == TestRecord.State.PASSED) {
             // This is a phantom skip after successful completion, ignore it
             return;
         }
 
-        Object retryAnalyzer = result.getMethod().getRetryAnalyzer(result);
-
-        if (retryAnalyzer instanceof RetryAnalyzer) {
-            RetryAnalyzer analyzer = (RetryAnalyzer) retryAnalyzer;
-            if (analyzer.getRetryCount() < RetryAnalyzer.maxRetryCount) {
-                retryTracker.put(uniqueName, analyzer.getRetryCount());
-                System.out.println("🔄 Test will be retried: " + methodName + " (attempt " + (analyzer.getRetryCount() + 1) + ")");
-
-                ExtentTest test = extentTestMap.get(uniqueName);
-                if (test != null) {
-                    test.log(Status.INFO, methodName + " skipped (attempt " + (analyzer.getRetryCount() + 1) + "), will retry...");
-                }
-                return; // Not a final skip, due to retry logic
-            }
+        // A transient failure the RetryAnalyzer accepted is reported as a skip of this attempt
+        if (result.wasRetried()) {
+            System.out.println("🔄 Test will be retried: " + methodName + " (attempt " + (record.attempts() + 1) + ")");
+            ReportWriter.log(key, Status.INFO, methodName + " failed transiently (attempt " + record.attempts()
+                    + "), will retry: " + result.getThrowable());
+            update(key, TestRecord::retryPending);
+            return; // Not a final skip, due to retry logic
         }
 
         // This is a genuine skip (no retry or max retries reached)
-        ExtentTest test = extentTestMap.get(uniqueName);
-        if (test != null) {
-            test.log(Status.SKIP, methodName + " was skipped and not retried.");
-        }
+        ReportWriter.log(key, Status.SKIP, methodName + " was skipped and not retried.");
 
         // Stop and delete video for skipped tests
-        if (videoRecordingStarted.getOrDefault(uniqueName, false)) {
-            VideoRecorder.stopRecording();
-            VideoRecorder.deleteRecording();
-            videoRecordingStarted.put(uniqueName, false);
+        if (record.recording()) {
+            VideoRecorder.stopRecording(key, false);
         }
 
-        finalResults.put(uniqueName, result);
-        retryTracker.put(uniqueName, 0);
+        update(key, r -> r.finished(TestRecord.State.SKIPPED, ITestResult.SKIP).withRecording(false));
+        recordHistory(result, record, RunHistoryStore.Outcome.SKIPPED);
     }
 
     @Override
@@ -211,15 +176,48 @@ public class TestListener extends CommonActions implements ITestListener {
         // Ensure any remaining recordings are stopped
         if (VideoRecorder.isRecording()) {
             System.out.println("⚠️ Cleaning up remaining video recording...");
-            VideoRecorder.stopRecording();
+            VideoRecorder.stopAll();
         }
 
         // Force cleanup just in case
         VideoRecorder.forceCleanup();
 
-        if (extent != null) {
-            extent.flush();
+        // Suite-wide step percentiles, and the per-test call stacks for flame graphs
+        if (!StepTimer.aggregate().isEmpty()) {
+            ReportWriter.createTest("step-timings", "Step Timings", "Abdelazeem", "PERFORMANCE");
+            ReportWriter.log("step-timings", Status.INFO, StepTimer.aggregateHtml());
+            try {
+                Files.write(Paths.get(STEP_TIMINGS_PATH), foldedStepTimings, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Error writing step timings: " + e.getMessage());
+            }
+        }
+
+        // Suite-wide WebDriver command latencies, and the per-test breakdown as JSON
+        if (!CommandMetrics.aggregate().isEmpty()) {
+            ReportWriter.createTest("webdriver-commands", "WebDriver Commands", "Abdelazeem", "PERFORMANCE");
+            ReportWriter.log("webdriver-commands", Status.INFO, CommandMetrics.aggregateHtml(25));
+            try {
+                CommandMetrics.writeJson(Paths.get(COMMAND_METRICS_PATH));
+            } catch (IOException e) {
+                System.err.println("Error writing WebDriver command metrics: " + e.getMessage());
+            }
+        }
+
+        // Page timings and budget results of every test
+        if (!PerformanceCapture.finished().isEmpty()) {
+            try {
+                PerformanceCapture.writeJson(Paths.get(PAGE_PERFORMANCE_PATH));
+            } catch (IOException e) {
+                System.err.println("Error writing page performance: " + e.getMessage());
+            }
+        }
+
+        // Tests are done; wait for the background writer to catch up and write the final report
+        if (ReportWriter.awaitFlush(Duration.ofSeconds(30))) {
             System.out.println("✅ Extent Report generated successfully.");
+        } else {
+            System.err.println("⚠️ Extent Report writer did not finish within 30s");
         }
 
         // Count video files created
@@ -267,85 +265,109 @@ public class TestListener extends CommonActions implements ITestListener {
     }
 
 
-    private String getUniqueTestName(ITestResult result) {
+    /**
+     * Class and method, as recorded in the run history
+     */
+    private String getTestName(ITestResult result) {
         return result.getTestClass().getName() + "." + result.getMethod().getMethodName();
     }
 
-    private int getRetryCount(ITestResult result) {
-        Object retryAnalyzer = result.getMethod().getRetryAnalyzer(result);
-        if (retryAnalyzer instanceof RetryAnalyzer) {
-            return ((RetryAnalyzer) retryAnalyzer).getRetryCount();
-        }
-        return 0;
+    /**
+     * Test identity without the invocation index: class, method and parameters
+     */
+    private String getTestIdentity(ITestResult result) {
+        String identity = getTestName(result);
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? identity : identity + Arrays.deepToString(parameters);
     }
 
     /**
-     * Captures screenshot as Base64 using pure Java (no extra dependencies)
+     * Attach the result to its record: a pending retry of the same test is continued, otherwise the first free
+     * invocation index gets a new record. Each claim is a single atomic compute on one key
      */
-    private String captureScreenshotAsBase64(ITestResult result, String testName) {
-        try {
-            if (getDriver() == null) {
-                System.err.println("Driver is null - cannot capture screenshot for: " + testName);
-                return null;
+    private TestRecord claimRecord(ITestResult result) {
+        String identity = getTestIdentity(result);
+        String displayName = result.getMethod().getMethodName();
+        for (int invocation = 0; ; invocation++) {
+            boolean[] claimed = new boolean[1];
+            TestRecord record = testRecords.compute(identity + "#" + invocation, (key, existing) -> {
+                if (existing == null) {
+                    claimed[0] = true;
+                    return TestRecord.started(key, displayName);
+                }
+                if (existing.state() == TestRecord.State.RETRY_PENDING) {
+                    claimed[0] = true;
+                    return existing.retryStarted();
+                }
+                return existing;
+            });
+            if (claimed[0]) {
+                result.setAttribute(RECORD_KEY_ATTRIBUTE, record.key());
+                return record;
             }
+        }
+    }
 
-            // Capture screenshot as Base64 (for Extent Report)
-            TakesScreenshot screenshot = (TakesScreenshot) getDriver();
-            String base64Screenshot = screenshot.getScreenshotAs(OutputType.BASE64);
-
-            // Also save to file for pipeline artifacts
-            saveScreenshotToFileSimple(screenshot, testName);
+    private TestRecord recordFor(ITestResult result) {
+        Object key = result.getAttribute(RECORD_KEY_ATTRIBUTE);
+        TestRecord record = key == null ? null : testRecords.get(key.toString());
+        if (record != null) {
+            return record;
+        }
 
-            return base64Screenshot;
-        } catch (Exception e) {
-            System.err.println("Failed to capture screenshot for " + testName + ": " + e.getMessage());
-            return null;
+        // Result that never started (e.g. skipped by a failed configuration): use the latest invocation, if any
+        String identity = getTestIdentity(result);
+        TestRecord latest = null;
+        for (int invocation = 0; testRecords.containsKey(identity + "#" + invocation); invocation++) {
+            latest = testRecords.get(identity + "#" + invocation);
+        }
+        if (latest != null) {
+            result.setAttribute(RECORD_KEY_ATTRIBUTE, latest.key());
+            return latest;
         }
+        return claimRecord(result);
     }
 
     /**
-     * Save screenshot to file using pipeline-friendly directory structure
+     * Close this thread's step profile, command counts and page metrics and attach them to the test (once per attempt)
      */
-    private void saveScreenshotToFileSimple(TakesScreenshot screenshot, String testName) {
-        try {
-            // Use pipeline-friendly directory structure
-            String screenshotBaseDir = System.getProperty("screenshot.dir", "./reports/screenshots");
-            File screenshotDir = new File(screenshotBaseDir);
-
-            // Don't create timestamp subdirectories - pipeline expects flat structure
-            if (!screenshotDir.exists()) {
-                boolean created = screenshotDir.mkdirs();
-                System.out.println("📂 Created screenshot directory: " + screenshotDir.getAbsolutePath() + " (success: " + created + ")");
-            }
-
-            File screenshotFile = screenshot.getScreenshotAs(OutputType.FILE);
-
-            // Include timestamp in filename instead of directory
-            String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").format(LocalDateTime.now());
-            File destFile = new File(screenshotDir, testName + "_" + timestamp + ".png");
+    private void reportTimings(String key) {
+        StepTimer.Profile profile = StepTimer.end();
+        if (profile != null && !profile.paths().isEmpty()) {
+            ReportWriter.log(key, Status.INFO, profile.toHtml(60));
+            foldedStepTimings.addAll(profile.folded());
+        }
+        CommandMetrics.TestCommands commands = CommandMetrics.end();
+        if (commands != null && commands.count() > 0) {
+            ReportWriter.log(key, Status.INFO, commands.toHtml(20));
+        }
+        PerformanceCapture.TestPages pages = PerformanceCapture.end();
+        if (pages != null && !pages.pages().isEmpty()) {
+            ReportWriter.log(key, Status.INFO, pages.toHtml(PerformanceCapture.Budgets.current()));
+        }
+    }
 
-            java.nio.file.Files.copy(screenshotFile.toPath(), destFile.toPath(),
-                    java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    private void recordHistory(ITestResult result, TestRecord record, RunHistoryStore.Outcome outcome) {
+        // Duration of the final attempt, which is what a scheduler needs to plan the next run
+        long durationMs = result.getStartMillis() > 0 ? Math.max(0, result.getEndMillis() - result.getStartMillis()) : 0;
+        RunHistoryStore.append(getTestName(result), outcome, record.attempts(), durationMs);
+    }
 
-            System.out.println("📸 Screenshot saved: " + destFile.getAbsolutePath());
-        } catch (Exception e) {
-            System.err.println("Failed to save screenshot file for " + testName + ": " + e.getMessage());
-        }
+    private static void update(String key, UnaryOperator<TestRecord> transition) {
+        testRecords.computeIfPresent(key, (k, record) -> transition.apply(record));
     }
 
     public static void exportTestSummary(String filePath) throws IOException {
-        int passed = 0, failed = 0, total = 0, retryCount = 0, skipDueToRetry = 0;
+        int passed = 0, failed = 0, total = 0, retryCount = 0;
 
-        for (Map.Entry<String, ITestResult> entry : finalResults.entrySet()) {
-            String testName = entry.getKey();
-            ITestResult result = entry.getValue();
+        for (TestRecord record : testRecords.values()) {
+            if (!record.state().isFinal()) {
+                continue;
+            }
             total++;
+            retryCount += record.retries();
 
-            int retries = retryTracker.getOrDefault(testName, 0);
-            retryCount += retries;
-            if (retries > 0) skipDueToRetry += retries;
-
-            switch (result.getStatus()) {
+            switch (record.finalStatus()) {
                 case ITestResult.SUCCESS:
                     passed++;
                     break;
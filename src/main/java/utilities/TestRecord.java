@@ -0,0 +1,43 @@
+package utilities;
+
+/**
+ * Immutable state of one test invocation as tracked by TestListener.
+ * Every callback replaces the record with a transitioned copy (ConcurrentHashMap.compute), so state is never
+ * shared mutably between threads and retries are attributed to the invocation they belong to.
+ */
+record TestRecord(String key, String displayName, State state, int attempts, boolean recording, int finalStatus) {
+
+    enum State {
+        RUNNING, RETRY_PENDING, PASSED, FAILED, SKIPPED;
+
+        boolean isFinal() {
+            return this == PASSED || this == FAILED || this == SKIPPED;
+        }
+    }
+
+    static final int NO_STATUS = -1;
+
+    static TestRecord started(String key, String displayName) {
+        return new TestRecord(key, displayName, State.RUNNING, 1, false, NO_STATUS);
+    }
+
+    TestRecord retryStarted() {
+        return new TestRecord(key, displayName, State.RUNNING, attempts + 1, recording, NO_STATUS);
+    }
+
+    TestRecord retryPending() {
+        return new TestRecord(key, displayName, State.RETRY_PENDING, attempts, recording, NO_STATUS);
+    }
+
+    TestRecord finished(State finalState, int status) {
+        return new TestRecord(key, displayName, finalState, attempts, recording, status);
+    }
+
+    TestRecord withRecording(boolean isRecording) {
+        return new TestRecord(key, displayName, state, attempts, isRecording, finalStatus);
+    }
+
+    int retries() {
+        return attempts - 1;
+    }
+}
@@ -1,33 +1,61 @@
 package utilities;
 
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * FFmpeg video recording, one recording per test.
+ * A test whose browser runs on its own virtual display (see VirtualDisplay) records that display;
+ * otherwise only the browser window's area of the shared display is captured.
+ * In the default "segments" mode FFmpeg writes short segments into a ring buffer that keeps only the last
+ * video.keepSeconds; they are stitched into a clip only when the test fails.
+ * Chromium browsers are recorded with a DevTools screencast instead (see ScreencastRecorder) unless
+ * video.backend=ffmpeg.
+ */
 public class VideoRecorder {
 
-    private static Process ffmpegProcess;
-    private static String currentVideoPath;
     private static final String VIDEO_BASE_PATH = "./reports/videos";
-    private static boolean isRecording = false;
-    private static String currentTestName;
+    private static final String SEGMENT_PATTERN = "segment_%03d.ts";
+
+    // Active recordings keyed by the caller's test key
+    private static final Map<String, Recording> recordings = new ConcurrentHashMap<>();
+
+    // segmentDir is null when the whole test is encoded straight to videoPath
+    private record Recording(String testName, String videoPath, Path segmentDir, Process process) {
+    }
 
     /**
-     * Start recording using FFmpeg with Xvfb virtual display
+     * Whether browsers of this type will be recorded from an X display (FFmpeg x11grab),
+     * i.e. whether they need a virtual display to be recorded
      */
-    public static void startRecording(String methodName) {
-        try {
-            // Store the test name
-            currentTestName = methodName;
-
-            // Check if FFmpeg is available
-            if (!isFFmpegAvailable()) {
-                System.out.println("⚠️ FFmpeg not available - video recording disabled");
-                return;
-            }
+    public static boolean needsDisplay(String browserName) {
+        boolean screencast = !"ffmpeg".equalsIgnoreCase(getBackend())
+                && ("chrome".equalsIgnoreCase(browserName) || "edge".equalsIgnoreCase(browserName));
+        return isPipelineEnvironment() && !screencast && canGrabScreen();
+    }
 
+    /**
+     * Start recording the current thread's browser (DevTools screencast or FFmpeg x11grab)
+     */
+    public static void startRecording(String recordingKey, String methodName) {
+        try {
             // Check if we're in pipeline environment
             if (!isPipelineEnvironment()) {
                 System.out.println("📍 Not in pipeline environment - video recording skipped");
@@ -39,28 +67,48 @@ public class VideoRecorder {
             String timestamp = dateFormat.format(new Date());
             File videoFolder = new File(VIDEO_BASE_PATH + "/" + timestamp);
 
+            // Generate video file path
+            String videoPath = videoFolder.getAbsolutePath() + "/" + methodName + "_" + timestamp + ".mp4";
+
+            // Chromium: stream frames from the browser itself, no display or FFmpeg process needed while running
+            WebDriver driver = DriverManager.getDriver();
+            if (!"ffmpeg".equalsIgnoreCase(getBackend()) && ScreencastRecorder.supports(driver)
+                    && ScreencastRecorder.start(recordingKey, methodName, videoPath, driver,
+                    isSegmentMode() ? getKeepSeconds() : Integer.MAX_VALUE)) {
+                return;
+            }
+
+            // Check if FFmpeg can capture the screen
+            if (!canGrabScreen()) {
+                System.out.println("⚠️ FFmpeg x11grab not available - video recording disabled");
+                return;
+            }
+
             if (!videoFolder.exists()) {
                 videoFolder.mkdirs();
                 System.out.println("📁 Created video directory: " + videoFolder.getAbsolutePath());
             }
 
-            // Generate video file path
-            currentVideoPath = videoFolder.getAbsolutePath() + "/" + methodName + "_" + timestamp + ".mp4";
+            // Ring buffer segments live next to the clip until the test finishes
+            Path segmentDir = isSegmentMode()
+                    ? Files.createTempDirectory(videoFolder.toPath(), "." + methodName + "_segments")
+                    : null;
 
-            // Build FFmpeg command for headless recording
-            String[] command = buildFFmpegCommand(currentVideoPath);
+            // Build FFmpeg command for this test's browser
+            List<String> command = buildFFmpegCommand(driver, videoPath, segmentDir);
 
-            // Start FFmpeg process
+            // Start FFmpeg process (output discarded: an unread pipe would eventually block FFmpeg)
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.redirectErrorStream(true);
-            ffmpegProcess = pb.start();
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            Process process = pb.start();
 
-            isRecording = true;
+            Recording previous = recordings.put(recordingKey, new Recording(methodName, videoPath, segmentDir, process));
+            if (previous != null) {
+                stop(previous, false);
+            }
             System.out.println("🎥 Video recording started for: " + methodName);
-            System.out.println("📹 Recording to: " + currentVideoPath);
-
-            // Give FFmpeg time to initialize
-            Thread.sleep(2000);
+            System.out.println("📹 Recording to: " + (segmentDir != null ? segmentDir : videoPath));
 
         } catch (Exception e) {
             System.err.println("❌ Failed to start video recording: " + e.getMessage());
@@ -69,15 +117,21 @@ public class VideoRecorder {
     }
 
     /**
-     * Stop the FFmpeg recording process
+     * Stop the test's recording. With keep (final failure) the video is saved and its path returned,
+     * otherwise the recording is discarded and null returned
      */
-    public static void stopRecording() {
-        if (!isRecording || ffmpegProcess == null) {
-            return;
+    public static String stopRecording(String recordingKey, boolean keep) {
+        if (ScreencastRecorder.isRecording(recordingKey)) {
+            return ScreencastRecorder.stop(recordingKey, keep);
         }
+        Recording recording = recordingKey == null ? null : recordings.remove(recordingKey);
+        return recording == null ? null : stop(recording, keep);
+    }
 
+    private static String stop(Recording recording, boolean keep) {
+        Process ffmpegProcess = recording.process();
         try {
-            System.out.println("⏹️ Stopping video recording for: " + currentTestName);
+            System.out.println("⏹️ Stopping video recording for: " + recording.testName());
 
             // Send 'q' to FFmpeg to stop gracefully
             if (ffmpegProcess.isAlive()) {
@@ -94,107 +148,188 @@ public class VideoRecorder {
                 }
             }
 
-            isRecording = false;
             System.out.println("🛑 Video recording stopped");
 
-            if (currentVideoPath != null) {
-                File videoFile = new File(currentVideoPath);
-                if (videoFile.exists() && videoFile.length() > 0) {
-                    System.out.println("💾 Video saved: " + currentVideoPath);
-                    System.out.println("📊 Video size: " + formatFileSize(videoFile.length()));
-                } else if (videoFile.exists()) {
-                    System.out.println("⚠️ Video file exists but is empty, deleting...");
-                    videoFile.delete();
-                }
+            if (keep && recording.segmentDir() != null) {
+                stitchSegments(recording.segmentDir(), recording.videoPath());
+            }
+
+            File videoFile = new File(recording.videoPath());
+            if (keep && videoFile.exists() && videoFile.length() > 0) {
+                System.out.println("💾 Video saved: " + recording.videoPath());
+                System.out.println("📊 Video size: " + formatFileSize(videoFile.length()));
+                return recording.videoPath();
+            } else if (videoFile.exists()) {
+                deleteRecording(recording.videoPath());
             }
 
         } catch (Exception e) {
             System.err.println("❌ Failed to stop video recording: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            ffmpegProcess = null;
+            deleteSegments(recording.segmentDir());
         }
+        return null;
     }
 
     /**
-     * Delete the recording (called when test passes)
+     * Concatenate the ring buffer segments, oldest first, into one clip (stream copy, no re-encoding)
      */
-    public static void deleteRecording() {
-        if (currentVideoPath == null) {
+    private static void stitchSegments(Path segmentDir, String videoPath) throws IOException, InterruptedException {
+        File[] segments = segmentDir.toFile().listFiles((dir, name) -> name.endsWith(".ts") && new File(dir, name).length() > 0);
+        if (segments == null || segments.length == 0) {
+            System.out.println("⚠️ No video segments recorded");
             return;
         }
+        // Segment numbers wrap around, so order by write time
+        Arrays.sort(segments, Comparator.comparingLong(File::lastModified));
+
+        Path listFile = segmentDir.resolve("segments.txt");
+        List<String> lines = new ArrayList<>();
+        for (File segment : segments) {
+            lines.add("file '" + segment.getAbsolutePath().replace("'", "'\\''") + "'");
+        }
+        Files.write(listFile, lines, StandardCharsets.UTF_8);
+
+        Process concat = new ProcessBuilder("ffmpeg", "-f", "concat", "-safe", "0", "-i", listFile.toString(),
+                "-c", "copy", "-y", videoPath)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!concat.waitFor(30, TimeUnit.SECONDS)) {
+            concat.destroyForcibly();
+            System.err.println("❌ Timed out stitching video segments");
+        } else {
+            System.out.println("🧵 Stitched " + segments.length + " video segment(s) (last " + getKeepSeconds() + "s)");
+        }
+    }
+
+    private static void deleteSegments(Path segmentDir) {
+        if (segmentDir == null) {
+            return;
+        }
+        File[] files = segmentDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        segmentDir.toFile().delete();
+        deleteEmptyParent(segmentDir.toFile());
+    }
 
+    /**
+     * Delete a saved recording (test passed or was skipped)
+     */
+    private static void deleteRecording(String videoPath) {
         try {
-            File videoFile = new File(currentVideoPath);
+            File videoFile = new File(videoPath);
             if (videoFile.exists()) {
                 long fileSize = videoFile.length();
                 boolean deleted = videoFile.delete();
                 if (deleted) {
                     System.out.println("🗑️ Video deleted (test passed): " + videoFile.getName() + " (" + formatFileSize(fileSize) + ")");
                 }
-
-                // Clean up empty directories
-                File parentDir = videoFile.getParentFile();
-                if (parentDir != null && parentDir.list() != null && parentDir.list().length == 0) {
-                    boolean dirDeleted = parentDir.delete();
-                    if (dirDeleted) {
-                        System.out.println("📁 Cleaned up empty directory: " + parentDir.getName());
-                    }
-                }
+                deleteEmptyParent(videoFile);
             }
         } catch (Exception e) {
             System.err.println("❌ Failed to delete video recording: " + e.getMessage());
-        } finally {
-            currentVideoPath = null;
-            currentTestName = null;
+        }
+    }
+
+    // Clean up empty directories
+    private static void deleteEmptyParent(File file) {
+        File parentDir = file.getParentFile();
+        if (parentDir != null && parentDir.list() != null && parentDir.list().length == 0) {
+            boolean dirDeleted = parentDir.delete();
+            if (dirDeleted) {
+                System.out.println("📁 Cleaned up empty directory: " + parentDir.getName());
+            }
         }
     }
 
     /**
-     * Build FFmpeg command for Xvfb recording
+     * Build the FFmpeg x11grab command for the browser's display, or its window area on the shared display
      */
-    private static String[] buildFFmpegCommand(String outputPath) {
-        String display = System.getenv("DISPLAY");
-        if (display == null || display.isEmpty()) {
-            display = ":99"; // Default Xvfb display
+    private static List<String> buildFFmpegCommand(WebDriver driver, String outputPath, Path segmentDir) {
+        Optional<String> sessionDisplay = VirtualDisplay.displayFor(driver);
+        String display;
+        String videoSize;
+        if (sessionDisplay.isPresent()) {
+            display = sessionDisplay.get();
+            videoSize = VirtualDisplay.getResolution();
+        } else {
+            display = System.getenv("DISPLAY");
+            if (display == null || display.isEmpty()) {
+                display = ":99"; // Default Xvfb display
+            }
+            videoSize = "1920x1080";
+
+            // Parallel browsers share this display: capture only this browser's window
+            Rectangle window = getWindowRect(driver);
+            if (window != null) {
+                // yuv420p needs even dimensions
+                videoSize = (window.getWidth() & ~1) + "x" + (window.getHeight() & ~1);
+                display = display + "+" + Math.max(0, window.getX()) + "," + Math.max(0, window.getY());
+            }
         }
 
         // Optimized FFmpeg command for pipeline recording
-        return new String[] {
+        List<String> command = new ArrayList<>(List.of(
                 "ffmpeg",
                 "-f", "x11grab",           // Input format for X11 screen capture
-                "-video_size", "1920x1080", // Screen resolution
+                "-video_size", videoSize,   // Screen (or window) resolution
                 "-framerate", "10",         // Lower framerate for smaller files
                 "-i", display,              // Input display
-                "-codec:v", "libx264",      // H.264 codec
-                "-preset", "ultrafast",     // Fastest encoding
-                "-pix_fmt", "yuv420p",      // Pixel format
-                "-crf", "35",               // Higher CRF for smaller files (0-51, higher = more compression)
-                "-y",                       // Overwrite output file
-                outputPath
-        };
+                "-pix_fmt", "yuv420p"       // Pixel format
+        ));
+        // Best available encoder (libx264 ultrafast when present), probed once per JVM
+        command.addAll(RecorderCapabilities.get().encoderArgs());
+
+        if (segmentDir == null) {
+            command.addAll(List.of("-y", outputPath));
+            return command;
+        }
+
+        // Ring buffer: fixed-length segments, numbering wraps so only the last keepSeconds stay on disk
+        int segmentSeconds = getSegmentSeconds();
+        int wrap = (int) Math.ceil((double) getKeepSeconds() / segmentSeconds) + 1; // +1: the one being written
+        command.addAll(List.of(
+                "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")", // cut exactly every segment
+                "-f", "segment",
+                "-segment_time", String.valueOf(segmentSeconds),
+                "-segment_wrap", String.valueOf(wrap),
+                "-reset_timestamps", "1",
+                "-y", segmentDir.resolve(SEGMENT_PATTERN).toString()
+        ));
+        return command;
     }
 
-    /**
-     * Check if FFmpeg is available in the system
-     */
-    private static boolean isFFmpegAvailable() {
+    private static Rectangle getWindowRect(WebDriver driver) {
+        if (driver == null) {
+            return null;
+        }
         try {
-            Process process = new ProcessBuilder("ffmpeg", "-version")
-                    .redirectErrorStream(true)
-                    .start();
-            int exitCode = process.waitFor(2, TimeUnit.SECONDS) ? process.exitValue() : -1;
-            boolean available = exitCode == 0;
-            if (available) {
-                System.out.println("✅ FFmpeg is available");
-            }
-            return available;
+            WebDriver.Window window = driver.manage().window();
+            Rectangle rect = new Rectangle(window.getPosition(), window.getSize());
+            return rect.getWidth() >= 2 && rect.getHeight() >= 2 ? rect : null;
         } catch (Exception e) {
-            System.out.println("❌ FFmpeg check failed: " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Check if FFmpeg (with a usable video encoder) is available; cached per JVM
+     */
+    static boolean isFFmpegAvailable() {
+        RecorderCapabilities capabilities = RecorderCapabilities.get();
+        return capabilities.ffmpegAvailable() && capabilities.videoEncoder() != null;
+    }
+
+    private static boolean canGrabScreen() {
+        return isFFmpegAvailable() && RecorderCapabilities.get().x11grabAvailable();
+    }
+
     /**
      * Check if running in pipeline environment
      */
@@ -204,7 +339,24 @@ public class VideoRecorder {
                 System.getenv("AZURE_PIPELINES") != null ||
                 System.getenv("BUILD_ID") != null ||
                 System.getenv("AGENT_ID") != null ||
-                "true".equals(System.getProperty("pipeline.mode"));
+                Config.getBoolean("pipeline.mode", false);
+    }
+
+    // auto = DevTools screencast for Chromium, FFmpeg for other browsers; ffmpeg = always FFmpeg
+    private static String getBackend() {
+        return Config.get("video.backend", "auto");
+    }
+
+    private static boolean isSegmentMode() {
+        return !"full".equalsIgnoreCase(Config.get("video.mode", "segments"));
+    }
+
+    private static int getKeepSeconds() {
+        return Math.max(1, Config.getInt("video.keepSeconds", 30));
+    }
+
+    private static int getSegmentSeconds() {
+        return Math.max(1, Config.getInt("video.segmentSeconds", 5));
     }
 
     /**
@@ -218,34 +370,37 @@ public class VideoRecorder {
     }
 
     /**
-     * Get the current video file path
+     * Check if any test is currently being recorded
      */
-    public static String getVideoPath() {
-        return currentVideoPath;
+    public static boolean isRecording() {
+        return !recordings.isEmpty() || ScreencastRecorder.isRecording();
     }
 
     /**
-     * Check if currently recording
+     * Stop and discard every active recording (end of run)
      */
-    public static boolean isRecording() {
-        return isRecording;
+    public static void stopAll() {
+        ScreencastRecorder.stopAll();
+        for (String key : new ArrayList<>(recordings.keySet())) {
+            stopRecording(key, false);
+        }
     }
 
     /**
      * Force cleanup of any running FFmpeg processes
      */
     public static void forceCleanup() {
-        if (ffmpegProcess != null && ffmpegProcess.isAlive()) {
-            try {
-                ffmpegProcess.destroyForcibly();
-                System.out.println("🔧 Force cleaned up FFmpeg process");
-            } catch (Exception e) {
-                System.err.println("Failed to force cleanup: " + e.getMessage());
+        for (String key : new ArrayList<>(recordings.keySet())) {
+            Recording recording = recordings.remove(key);
+            if (recording != null && recording.process().isAlive()) {
+                try {
+                    recording.process().destroyForcibly();
+                    deleteSegments(recording.segmentDir());
+                    System.out.println("🔧 Force cleaned up FFmpeg process");
+                } catch (Exception e) {
+                    System.err.println("Failed to force cleanup: " + e.getMessage());
+                }
             }
         }
-        ffmpegProcess = null;
-        isRecording = false;
-        currentVideoPath = null;
-        currentTestName = null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocates one Xvfb display per browser session, so parallel workers can each be recorded
+ * without capturing (or overlapping with) each other's windows.
+ * Allocation is best effort: without Xvfb, or with video.displayPerSession=false, browsers share the default display.
+ */
+public final class VirtualDisplay {
+
+    private static final Logger log = LogManager.getLogger(VirtualDisplay.class);
+
+    private static final Map<String, Process> displays = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, String> sessionDisplays = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(VirtualDisplay::releaseAll, "virtual-display-shutdown"));
+    }
+
+    private VirtualDisplay() {
+    }
+
+    /**
+     * Start a new Xvfb display, returning its name (e.g. ":101"), or null if per-session displays are unavailable
+     */
+    public static String acquire() {
+        if (!isEnabled() || !RecorderCapabilities.get().xvfbAvailable()) {
+            return null;
+        }
+        try {
+            // -displayfd makes Xvfb pick a free display number and print it once the server is ready
+            Process process = new ProcessBuilder("Xvfb", "-displayfd", "1", "-screen", "0", getResolution() + "x24",
+                    "-nolisten", "tcp")
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            String number = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return reader.readLine();
+                } catch (Exception e) {
+                    return null;
+                }
+            }).get(10, TimeUnit.SECONDS);
+
+            if (number == null || number.isBlank()) {
+                process.destroyForcibly();
+                log.warn("Xvfb did not report a display number - using the shared display");
+                return null;
+            }
+            String display = ":" + number.trim();
+            displays.put(display, process);
+            log.info("Started virtual display " + display + " (" + getResolution() + ")");
+            return display;
+        } catch (Exception e) {
+            log.warn("Could not start a virtual display - using the shared display: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Remember which display a browser session runs on (no-op for a null display)
+     */
+    public static void bind(WebDriver driver, String display) {
+        if (driver != null && display != null) {
+            sessionDisplays.put(driver, display);
+        }
+    }
+
+    public static Optional<String> displayFor(WebDriver driver) {
+        return driver == null ? Optional.empty() : Optional.ofNullable(sessionDisplays.get(driver));
+    }
+
+    /**
+     * Stop the display of a browser session that has been quit
+     */
+    public static void releaseFor(WebDriver driver) {
+        if (driver != null) {
+            release(sessionDisplays.remove(driver));
+        }
+    }
+
+    public static void release(String display) {
+        Process process = display == null ? null : displays.remove(display);
+        if (process != null) {
+            process.destroy();
+            log.info("Stopped virtual display " + display);
+        }
+    }
+
+    private static void releaseAll() {
+        sessionDisplays.clear();
+        for (String display : new ArrayList<>(displays.keySet())) {
+            release(display);
+        }
+    }
+
+    /**
+     * Screen size of the per-session displays, WIDTHxHEIGHT
+     */
+    public static String getResolution() {
+        return Config.get("video.resolution", "1920x1080");
+    }
+
+    private static boolean isEnabled() {
+        return Config.getBoolean("video.displayPerSession", true);
+    }
+}
@@ -0,0 +1,293 @@
+package utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Condition-based waiting with adaptive backoff.
+ * Conditions are polled quickly at first (25 ms) and progressively slower (up to 400 ms), so a wait returns
+ * within milliseconds of the condition holding instead of sleeping for a fixed worst-case duration.
+ */
+public final class WaitEngine {
+
+    private static final Logger log = LogManager.getLogger(WaitEngine.class);
+
+    private static final long INITIAL_POLL_MS = 25;
+    private static final long MAX_POLL_MS = 400;
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    // Time the current thread (i.e. the current test) has spent blocked in waits
+    private static final ThreadLocal<long[]> waitedNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final String TABLE_ROW_COUNT_SCRIPT =
+            "var body = document.querySelector('tbody');" +
+            "return body ? body.querySelectorAll('tr').length : 0;";
+
+    // Identity of the table's content: the tbody node (tagged on first sight, so a re-rendered body differs), the
+    // row count and the symbols of the first and last rows. Prices are left out as they tick on their own
+    private static final String TABLE_MARKER_SCRIPT =
+            "var body = document.querySelector('tbody');" +
+            "if (!body) return 'none';" +
+            "if (!body.__waitMarker) { body.__waitMarker = String(Math.random()).substring(2); }" +
+            "var rows = body.querySelectorAll('tr');" +
+            "function symbol(row) { var cell = row && row.querySelector('td'); return cell ? cell.textContent.trim() : ''; }" +
+            "return [body.__waitMarker, rows.length, symbol(rows[0]), symbol(rows[rows.length - 1])].join('|');";
+
+    private static final String SETTLED_BOX_SCRIPT =
+            "var el = arguments[0];" +
+            "if (!el || !el.isConnected) return null;" +
+            "var rect = el.getBoundingClientRect();" +
+            "if (rect.width === 0 || rect.height === 0) return null;" +
+            "var style = window.getComputedStyle(el);" +
+            "if (style.visibility === 'hidden' || parseFloat(style.opacity) < 1) return null;" +
+            "var running = el.getAnimations ? el.getAnimations({subtree: true}).some(function (a) {" +
+            "  return a.playState === 'running'; }) : false;" +
+            "return running ? null : [rect.left, rect.top, rect.width, rect.height].join(',');";
+
+    private WaitEngine() {
+    }
+
+    /**
+     * A named condition. The check is satisfied when it returns a non-null value other than Boolean.FALSE
+     */
+    public record Condition<T>(String name, Function<WebDriver, T> check) {
+    }
+
+    public static <T> Condition<T> condition(String name, Function<WebDriver, T> check) {
+        return new Condition<>(name, check);
+    }
+
+    /**
+     * Wait for the condition using the policy's default timeout
+     */
+    public static <T> T until(Condition<T> condition) {
+        return until(condition, WaitPolicy.defaultTimeout());
+    }
+
+    /**
+     * Wait for the condition, throwing TimeoutException if it does not hold within the timeout
+     */
+    public static <T> T until(Condition<T> condition, Duration timeout) {
+        WebDriver driver = DriverManager.getDriver();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long pollMs = INITIAL_POLL_MS;
+        RuntimeException lastError = null;
+
+        StepTimer.start("wait:" + condition.name());
+        try {
+            while (true) {
+                try {
+                    T value = condition.check().apply(driver);
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        log.info("Wait '" + condition.name() + "' satisfied in "
+                                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                        return value;
+                    }
+                } catch (NoSuchElementException | StaleElementReferenceException e) {
+                    lastError = e;
+                }
+
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    throw new TimeoutException("Wait '" + condition.name() + "' not satisfied within "
+                            + timeout.toMillis() + " ms", lastError);
+                }
+                sleep(Math.min(pollMs, remainingMs));
+                pollMs = Math.min(MAX_POLL_MS, (long) (pollMs * BACKOFF_FACTOR));
+            }
+        } finally {
+            StepTimer.stop();
+            waitedNanos.get()[0] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Like until, but returns null on timeout instead of throwing (for optional states)
+     */
+    public static <T> T waitQuietly(Condition<T> condition, Duration timeout) {
+        try {
+            return until(condition, timeout);
+        } catch (TimeoutException e) {
+            log.info(e.getMessage());
+            return null;
+        }
+    }
+
+    public static long getWaitedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitedNanos.get()[0]);
+    }
+
+    public static void resetWaitedTime() {
+        waitedNanos.get()[0] = 0;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Named conditions
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * document.readyState is complete
+     */
+    public static Condition<Boolean> documentReady() {
+        return condition("document ready", driver ->
+                "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState")));
+    }
+
+    /**
+     * The (PageFactory) element can be located; returns it
+     */
+    public static Condition<WebElement> present(WebElement element) {
+        return condition("element present", driver -> {
+            element.getTagName(); // forces the lookup, throws NoSuchElementException while absent
+            return element;
+        });
+    }
+
+    /**
+     * At least one element matches the locator; returns all matches
+     */
+    public static Condition<List<WebElement>> elementsPresent(By locator) {
+        return condition("elements present: " + locator, driver -> {
+            List<WebElement> elements = driver.findElements(locator);
+            return elements.isEmpty() ? null : elements;
+        });
+    }
+
+    /**
+     * The first table body has rows and the row count did not change between two consecutive polls
+     */
+    public static Condition<Long> tableRowsRendered() {
+        AtomicReference<Long> previous = new AtomicReference<>();
+        return condition("table rows rendered", driver -> {
+            Long rows = (Long) ((JavascriptExecutor) driver).executeScript(TABLE_ROW_COUNT_SCRIPT);
+            Long before = previous.getAndSet(rows);
+            return rows != null && rows > 0 && rows.equals(before) ? rows : null;
+        });
+    }
+
+    /**
+     * Marker of what the first table body currently shows; compare with tableChangedFrom after an action
+     */
+    public static String tableMarker(WebDriver driver) {
+        return (String) ((JavascriptExecutor) driver).executeScript(TABLE_MARKER_SCRIPT);
+    }
+
+    /**
+     * The first table body no longer shows what the marker describes (other rows, or a new body)
+     */
+    public static Condition<String> tableChangedFrom(String marker) {
+        return condition("table changed", driver -> {
+            String current = tableMarker(driver);
+            return current != null && !current.equals(marker) ? current : null;
+        });
+    }
+
+    /**
+     * The row count of the first table body stopped changing: rows that held for two consecutive polls, or an
+     * empty body that stayed empty for emptyQuietPeriod (so empty tables settle instead of timing out)
+     */
+    public static Condition<Long> tableRowsSettled(Duration emptyQuietPeriod) {
+        AtomicReference<Long> previous = new AtomicReference<>();
+        long[] emptySince = {0};
+        return condition("table rows settled", driver -> {
+            Long rows = (Long) ((JavascriptExecutor) driver).executeScript(TABLE_ROW_COUNT_SCRIPT);
+            Long before = previous.getAndSet(rows);
+            if (rows == null || !rows.equals(before)) {
+                emptySince[0] = System.nanoTime();
+                return null;
+            }
+            if (rows > 0) {
+                return rows;
+            }
+            return System.nanoTime() - emptySince[0] >= emptyQuietPeriod.toNanos() ? rows : null;
+        });
+    }
+
+    /**
+     * The menu is visible, fully opaque, has no running CSS animation/transition and its box stopped moving
+     */
+    public static Condition<Boolean> dropdownAnimationFinished(WebElement menu) {
+        return settledBox("dropdown animation finished", driver -> menu);
+    }
+
+    public static Condition<Boolean> dropdownAnimationFinished(By menuLocator) {
+        return settledBox("dropdown animation finished", driver -> {
+            List<WebElement> menus = driver.findElements(menuLocator);
+            return menus.isEmpty() ? null : menus.get(0);
+        });
+    }
+
+    /**
+     * A window that was not in the given set has opened and finished loading; the driver is switched to it
+     */
+    public static Condition<String> newTabLoaded(Set<String> existingHandles) {
+        return condition("new tab loaded", driver -> {
+            for (String handle : driver.getWindowHandles()) {
+                if (!existingHandles.contains(handle)) {
+                    driver.switchTo().window(handle);
+                    // A fresh tab briefly reports "complete" for about:blank before navigating
+                    boolean loaded = !driver.getCurrentUrl().startsWith("about:blank") &&
+                            "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+                    return loaded ? handle : null;
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * The page scroll position stopped changing (smooth scrolling finished)
+     */
+    public static Condition<Boolean> scrollSettled() {
+        AtomicReference<Object> previous = new AtomicReference<>();
+        return condition("scroll settled", driver -> {
+            Object position = ((JavascriptExecutor) driver).executeScript("return window.scrollX + ',' + window.scrollY;");
+            return Objects.equals(position, previous.getAndSet(position));
+        });
+    }
+
+    /**
+     * The current URL differs from the given one (navigation started)
+     */
+    public static Condition<String> urlChangedFrom(String originalUrl) {
+        return condition("url changed", driver -> {
+            String url = driver.getCurrentUrl();
+            return url.equals(originalUrl) ? null : url;
+        });
+    }
+
+    private static Condition<Boolean> settledBox(String name, Function<WebDriver, WebElement> element) {
+        AtomicReference<Object> previous = new AtomicReference<>();
+        return condition(name, driver -> {
+            WebElement el = element.apply(driver);
+            Object box = el == null ? null : ((JavascriptExecutor) driver).executeScript(SETTLED_BOX_SCRIPT, el);
+            // Settled once two consecutive polls report the same box
+            return box != null && box.equals(previous.getAndSet(box));
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Single source of truth for how long the framework blocks.
+ * The implicit wait is always zero, so a findElements that finds nothing returns immediately;
+ * explicit waits (WaitEngine, WebDriverWait) are the only blocking primitive and use these timeouts.
+ */
+public final class WaitPolicy {
+
+    public static final Duration IMPLICIT_WAIT = Duration.ZERO;
+
+    private WaitPolicy() {
+    }
+
+    /**
+     * Apply the policy to a new browser session
+     */
+    public static void applyTo(WebDriver driver) {
+        driver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
+    }
+
+    /**
+     * Timeout for elements and states a test expects to appear
+     */
+    public static Duration defaultTimeout() {
+        return Duration.ofSeconds(Config.getLong("wait.timeoutSeconds", 15));
+    }
+
+    /**
+     * Timeout for optional states (empty categories, menus that may not open)
+     */
+    public static Duration shortTimeout() {
+        return Duration.ofSeconds(Config.getLong("wait.shortTimeoutSeconds", 5));
+    }
+
+    /**
+     * Timeout for full page loads and navigations
+     */
+    public static Duration pageLoadTimeout() {
+        return Duration.ofSeconds(Config.getLong("wait.pageLoadSeconds", 60));
+    }
+}
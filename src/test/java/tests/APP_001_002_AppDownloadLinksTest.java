@@ -11,6 +11,7 @@ import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 import utilities.RetryAnalyzer;
 import utilities.TestListener;
+import utilities.WaitEngine;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -45,7 +46,6 @@ public class APP_001_002_AppDownloadLinksTest extends Base {
         // Step 1: Scroll to app download section
         log.info("Step 1: Scrolling to app download section");
         homePage.scrollToAppDownloadSection();
-        Thread.sleep(2000);
 
 
         // Verify app download section is visible
@@ -66,31 +66,20 @@ public class APP_001_002_AppDownloadLinksTest extends Base {
 
         // Step 3: Click the App Store link
         log.info("Step 3: Clicking App Store link");
+        String originalWindow = getDriver().getWindowHandle();
         appStoreLink.click();
-        Thread.sleep(3000); // Wait for new tab to open
 
-        // Step 3: SIMPLE TAB SWITCHING
-        String originalWindow = driver.getWindowHandle();
+        // Step 3: Switch to the new tab as soon as it has opened and loaded
+        String newWindow = WaitEngine.until(WaitEngine.newTabLoaded(Set.of(originalWindow)));
+        log.info("Switched to new tab: " + newWindow);
 
-        Set<String> allWindows = driver.getWindowHandles();
-        log.info("Total windows after click: " + allWindows.size());
-
-        // Switch to the new tab (the one that's not the original)
-        for (String window : allWindows) {
-            if (!window.equals(originalWindow)) {
-                driver.switchTo().window(window);
-                log.info("Switched to new tab: " + window);
-                break;
-            }
-        }
-
-        String currentWindow = driver.getWindowHandle();
+        String currentWindow = getDriver().getWindowHandle();
         Assert.assertNotEquals(currentWindow, originalWindow, "Should be on new tab");
         log.info("Current window after switch: " + currentWindow);
 
         // Step 5: Verify App Store URL
         log.info("Step 5: Verifying App Store URL");
-        String appStoreUrl = driver.getCurrentUrl();
+        String appStoreUrl = getDriver().getCurrentUrl();
         log.info("App Store URL: " + appStoreUrl);
         Assert.assertTrue(appStoreUrl.contains(expectedAppStoreUrlPattern),
                 "Should navigate to Apple App Store. URL: " + appStoreUrl +
@@ -117,7 +106,6 @@ public class APP_001_002_AppDownloadLinksTest extends Base {
         // Step 1: Scroll to app download section (if not already done by previous test)
         log.info("Step 1: Scrolling to app download section");
         homePage.scrollToAppDownloadSection();
-        Thread.sleep(2000); // Wait for scroll to complete
 
         // Verify app download section is visible
         Assert.assertTrue(homePage.isAppDownloadSectionVisible(),
@@ -137,31 +125,21 @@ public class APP_001_002_AppDownloadLinksTest extends Base {
 
         // Step 3: Click the Google Play link
         log.info("Step 3: Clicking Google Play link");
+        String originalWindow = getDriver().getWindowHandle();
         googlePlayLink.click();
-        Thread.sleep(3000); // Wait for new tab to open
-
-        // Step 4: SIMPLE TAB SWITCHING
-        String originalWindow = driver.getWindowHandle();
-        Set<String> allWindows = driver.getWindowHandles();
-        log.info("Total windows after click: " + allWindows.size());
-
-        // Switch to the new tab (the one that's not the original)
-        for (String window : allWindows) {
-            if (!window.equals(originalWindow)) {
-                driver.switchTo().window(window);
-                log.info("Switched to new tab: " + window);
-                break;
-            }
-        }
+
+        // Step 4: Switch to the new tab as soon as it has opened and loaded
+        String newWindow = WaitEngine.until(WaitEngine.newTabLoaded(Set.of(originalWindow)));
+        log.info("Switched to new tab: " + newWindow);
 
         // Verify we actually switched to a new tab
-        String currentWindow = driver.getWindowHandle();
+        String currentWindow = getDriver().getWindowHandle();
         Assert.assertNotEquals(currentWindow, originalWindow, "Should be on new tab");
         log.info("Current window after switch: " + currentWindow);
 
         // Step 5: Verify Google Play URL
         log.info("Step 5: Verifying Google Play URL");
-        String googlePlayUrl = driver.getCurrentUrl();
+        String googlePlayUrl = getDriver().getCurrentUrl();
         log.info("Google Play URL: " + googlePlayUrl);
         Assert.assertTrue(googlePlayUrl.contains(expectedGooglePlayUrlPattern),
                 "Should navigate to Google Play Store. URL: " + googlePlayUrl +
@@ -5,6 +5,7 @@ import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
+import pages.NavigationSnapshot;
 import utilities.TestListener;
 
 import java.util.List;
@@ -19,11 +20,14 @@ public class NAV_001_VerifyTopNavigationHeaderVisibilityTest extends Base {
 
     @Test(description = "NAV-001: Validate top navigation bar with all menu items")
     public void testTopNavigationBarDisplay() {
+        // Read the whole navigation bar once
+        NavigationSnapshot navigation = homePage.getNavigationSnapshot();
+
         // Verify navigation container is visible
-        Assert.assertTrue(homePage.isNavigationBarVisible(), "Navigation bar should be visible");
+        Assert.assertTrue(navigation.containerVisible(), "Navigation bar should be visible");
 
         // Get actual navigation items
-        List<String> actualMenuItems = homePage.getNavigationMenuItems();
+        List<String> actualMenuItems = navigation.visibleMenuNames();
 
         // Get expected navigation items from external data file
         List<String> expectedMenuItems = testData.getExpectedNavigationItems();
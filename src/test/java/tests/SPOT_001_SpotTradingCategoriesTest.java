@@ -33,14 +33,13 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
         log.info("Starting SPOT-001: Validate Spot trading pairs");
 
         // Wait for page to fully load
-        Thread.sleep(5000);
         waitForPageLoad();
 
         // Step 1: Verify Spot header is visible (indicating we're on Spot trading page)
         log.info("Step 1: Verifying Spot header is visible");
 
         // First, check if we're on the right page by looking at URL
-        String currentUrl = driver.getCurrentUrl();
+        String currentUrl = getDriver().getCurrentUrl();
         log.info("Current URL: " + currentUrl);
 
 //        // Check if Spot header contains "Spot" text
@@ -58,7 +57,7 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
 //            log.error("Spot header not found or not visible: " + e.getMessage());
 //
 //            // Debug: Check what's actually visible
-//            List<WebElement> activeHeaders = driver.findElements(
+//            List<WebElement> activeHeaders = getDriver().findElements(
 //                    By.xpath("//span[contains(@class, 'style_active__Yuxzy')]")
 //            );
 //
@@ -74,8 +73,7 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
 
         // Step 2: Click All category button using your existing method
         log.info("Step 2: Clicking 'All' category button");
-        homePage.clickSpotCategory("All");
-        Thread.sleep(3000); // Give more time for content to load
+        homePage.clickSpotCategory("All"); // waits for the table to switch and settle
 
         // Step 3: Get trading pairs - use your tradingPairsTable locator
         log.info("Step 3: Getting trading pairs");
@@ -84,7 +82,7 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
         // If no pairs found in table, try alternative selectors
         if (tradingPairs.isEmpty()) {
             log.info("No pairs found in table, trying alternative selectors");
-            tradingPairs = driver.findElements(
+            tradingPairs = probeAll(
                     By.xpath("//tbody//tr[position() > 1] | " + // Table rows except header
                             "//tr[contains(@class, 'cursor-pointer')] | " +
                             "//div[contains(@class, 'pair')] | " +
@@ -150,13 +148,11 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
             if (!category.equalsIgnoreCase("All")) {
                 try {
                     log.info("Testing category: " + category);
+                    // Waits until the table shows this category; empty ones (e.g. Favorites) settle after a short quiet period
                     homePage.clickSpotCategory(category);
-                    Thread.sleep(2000); // Wait for category switch
 
                     // Get pairs for this category
-                    List<WebElement> categoryPairs = driver.findElements(
-                            By.xpath("//tbody//tr[position() > 1]")
-                    );
+                    List<WebElement> categoryPairs = probeAll(By.xpath("//tbody//tr[position() > 1]"));
 
                     if (category.equalsIgnoreCase("Favorites") && categoryPairs.isEmpty()) {
                         log.info("Favorites category is empty (expected for new users)");
@@ -177,7 +173,7 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
             // Click Themes to open the dropdown (this is a main category)
             log.info("Testing Themes main category");
             homePage.clickSpotCategory("Themes");
-            Thread.sleep(1000);
+            homePage.waitForThemesDropdown();
 
             // Now test each sub-category inside the dropdown
             String[] themeSubCategories = {"Legacy", "DeFi", "Stablecoin"};
@@ -188,7 +184,6 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
 
                     // Use the special method for dropdown items
                     homePage.clickThemeSubCategory(subCategory);
-                    Thread.sleep(2000);
 
                     // Verify trading pairs are displayed
                     log.info("Sub-category '" + subCategory + "' has " + tradingPairs.size() + " trading pairs");
@@ -202,7 +197,6 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
 
                     // Reopen dropdown for next sub-category
                     homePage.openThemesDropdown();
-                    Thread.sleep(500);
 
                 } catch (Exception e) {
                     log.warn("Could not test sub-category: " + subCategory + " - " + e.getMessage());
@@ -211,7 +205,6 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
 
             // Close dropdown when done
             homePage.closeThemesDropdown();
-            Thread.sleep(500);
 
         } catch (Exception e) {
             log.warn("Themes dropdown testing failed: " + e.getMessage());
@@ -220,7 +213,6 @@ public class SPOT_001_SpotTradingCategoriesTest extends Base {
         // Step 7: Final verification - return to All category
         log.info("Step 7: Returning to All category");
         homePage.clickSpotCategory("All");
-        Thread.sleep(2000);
 
         // Verify we still have trading pairs
         List<WebElement> finalPairs = homePage.getTradingPairs();
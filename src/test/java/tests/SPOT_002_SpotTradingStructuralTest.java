@@ -30,18 +30,18 @@ public class SPOT_002_SpotTradingStructuralTest extends Base {
         log.info("Starting SPOT-002: Validate Spot trading structural elements");
 
         // Wait for page to fully load
-        Thread.sleep(5000);
         waitForPageLoad();
 
         // Step 1: Click 'All' category to ensure we see all trading pairs
         log.info("Step 2: Clicking 'All' category to see all pairs");
-        homePage.clickSpotCategory("All");
-        Thread.sleep(3000); // Wait for pairs to load
+        retryStep("Select All category", () -> {
+            homePage.clickSpotCategory("All"); // waits for the table to switch and settle
+        });
 
         // Step 2: Validate column headers
         log.info("Step 3: Validating column headers");
         try {
-            homePage.validateColumnHeaders();
+            retryStep("Validate column headers", () -> homePage.validateColumnHeaders());
             log.info("Column headers validated successfully");
         } catch (AssertionError e) {
             log.error("Column header validation failed: " + e.getMessage());
@@ -51,7 +51,7 @@ public class SPOT_002_SpotTradingStructuralTest extends Base {
         // Step 3: Verify trading pair symbol formatting
         log.info("Step 4: Validating trading pair symbol formatting");
         try {
-            homePage.validatePairSymbolFormatting();
+            retryStep("Validate pair symbols", () -> homePage.validatePairSymbolFormatting());
             log.info("Trading pair formatting validated successfully");
         } catch (AssertionError e) {
             log.error("Pair symbol validation failed: " + e.getMessage());
@@ -61,7 +61,7 @@ public class SPOT_002_SpotTradingStructuralTest extends Base {
         // Step 4: Validate price display formatting
         log.info("Step 5: Validating price display formatting");
         try {
-            homePage.validatePriceFormatting();
+            retryStep("Validate prices", () -> homePage.validatePriceFormatting());
             log.info("Price formatting validated successfully");
         } catch (AssertionError e) {
             log.error("Price formatting validation failed: " + e.getMessage());
@@ -71,7 +71,7 @@ public class SPOT_002_SpotTradingStructuralTest extends Base {
         // Step 5: Verify all required UI elements are present
         log.info("Step 6: Validating required UI elements");
         try {
-            homePage.validateUIElements();
+            retryStep("Validate UI elements", () -> homePage.validateUIElements());
             log.info("UI elements validated successfully");
         } catch (AssertionError e) {
             log.error("UI elements validation failed: " + e.getMessage());